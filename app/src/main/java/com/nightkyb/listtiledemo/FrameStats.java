@@ -0,0 +1,253 @@
+package com.nightkyb.listtiledemo;
+
+import java.util.Arrays;
+
+/**
+ * 帧耗时统计，只依赖JDK，可以在JVM上测试。
+ * <p>
+ * 记录每一帧的耗时，超过帧预算（一个刷新周期）的帧视为卡顿，超过{@link #FROZEN_FRAME_NANOS}的帧视为冻结。
+ * 非线程安全，由调用方保证同步。
+ *
+ * @author nightkyb
+ */
+public final class FrameStats {
+    /**
+     * 冻结帧的阈值，与Android vitals一致
+     */
+    public static final long FROZEN_FRAME_NANOS = 700_000_000L;
+
+    private final long frameBudgetNanos;
+    private long[] durations = new long[256];
+    private int frameCount;
+    private int jankCount;
+    private int frozenCount;
+    private int droppedReports;
+    private long totalNanos;
+
+    /**
+     * @param frameBudgetNanos 帧预算，60Hz时约为16.67ms
+     */
+    public FrameStats(long frameBudgetNanos) {
+        if (frameBudgetNanos <= 0) {
+            throw new IllegalArgumentException("Frame budget must be positive!");
+        }
+        this.frameBudgetNanos = frameBudgetNanos;
+    }
+
+    /**
+     * 根据屏幕刷新率创建
+     */
+    public static FrameStats forRefreshRate(float refreshRate) {
+        return new FrameStats(Math.round(1_000_000_000.0 / refreshRate));
+    }
+
+    public void addFrame(long durationNanos) {
+        if (frameCount == durations.length) {
+            durations = Arrays.copyOf(durations, frameCount * 2);
+        }
+        durations[frameCount++] = durationNanos;
+        totalNanos += durationNanos;
+        if (durationNanos > frameBudgetNanos) {
+            jankCount++;
+        }
+        if (durationNanos > FROZEN_FRAME_NANOS) {
+            frozenCount++;
+        }
+    }
+
+    /**
+     * 记录因为统计不及时而丢失的帧数，这些帧没有耗时数据
+     */
+    public void addDroppedReports(int count) {
+        droppedReports += count;
+    }
+
+    public long getFrameBudgetNanos() {
+        return frameBudgetNanos;
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    public int getJankCount() {
+        return jankCount;
+    }
+
+    public int getFrozenCount() {
+        return frozenCount;
+    }
+
+    public int getDroppedReports() {
+        return droppedReports;
+    }
+
+    /**
+     * 卡顿帧的百分比，没有记录时返回0
+     */
+    public double getJankPercent() {
+        return frameCount == 0 ? 0 : jankCount * 100.0 / frameCount;
+    }
+
+    public long getAverageNanos() {
+        return frameCount == 0 ? 0 : totalNanos / frameCount;
+    }
+
+    public long getMaxNanos() {
+        long max = 0;
+        for (int i = 0; i < frameCount; i++) {
+            max = Math.max(max, durations[i]);
+        }
+        return max;
+    }
+
+    /**
+     * 使用最近秩法计算百分位耗时
+     *
+     * @param percentile 0~100
+     * @return 没有记录时返回0
+     */
+    public long getPercentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in [0, 100]!");
+        }
+        if (frameCount == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(durations, frameCount);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * frameCount);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * 第index帧的耗时
+     */
+    public long getFrameNanos(int index) {
+        if (index < 0 || index >= frameCount) {
+            throw new IndexOutOfBoundsException("index: " + index + ", frames: " + frameCount);
+        }
+        return durations[index];
+    }
+
+    /**
+     * 复制当前的统计结果，用于在其他线程读取
+     */
+    public FrameStats copy() {
+        FrameStats copy = new FrameStats(frameBudgetNanos);
+        copy.durations = Arrays.copyOf(durations, durations.length);
+        copy.frameCount = frameCount;
+        copy.jankCount = jankCount;
+        copy.frozenCount = frozenCount;
+        copy.droppedReports = droppedReports;
+        copy.totalNanos = totalNanos;
+        return copy;
+    }
+
+    public void reset() {
+        frameCount = 0;
+        jankCount = 0;
+        frozenCount = 0;
+        droppedReports = 0;
+        totalNanos = 0;
+    }
+
+    /**
+     * 导出为JSON，时间单位为毫秒，保留两位小数
+     *
+     * @param label 场景名称，例如"flat"
+     */
+    public String toJson(String label) {
+        StringBuilder sb = new StringBuilder(64 + frameCount * 8);
+        sb.append('{');
+        sb.append("\"label\":");
+        appendString(sb, label);
+        sb.append(",\"frames\":").append(frameCount);
+        sb.append(",\"jankFrames\":").append(jankCount);
+        sb.append(",\"frozenFrames\":").append(frozenCount);
+        sb.append(",\"droppedReports\":").append(droppedReports);
+        sb.append(",\"jankPercent\":");
+        appendFixed(sb, Math.round(getJankPercent() * 100));
+        sb.append(",\"frameBudgetMs\":");
+        appendMillis(sb, frameBudgetNanos);
+        sb.append(",\"averageMs\":");
+        appendMillis(sb, getAverageNanos());
+        sb.append(",\"p50Ms\":");
+        appendMillis(sb, getPercentileNanos(50));
+        sb.append(",\"p90Ms\":");
+        appendMillis(sb, getPercentileNanos(90));
+        sb.append(",\"p99Ms\":");
+        appendMillis(sb, getPercentileNanos(99));
+        sb.append(",\"maxMs\":");
+        appendMillis(sb, getMaxNanos());
+        sb.append(",\"durationsMs\":[");
+        for (int i = 0; i < frameCount; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            appendMillis(sb, durations[i]);
+        }
+        sb.append("]}");
+        return sb.toString();
+    }
+
+    private static void appendMillis(StringBuilder sb, long nanos) {
+        // 四舍五入到0.01ms
+        appendFixed(sb, (nanos + 5_000) / 10_000);
+    }
+
+    /**
+     * 输出两位小数，不使用String.format，避免不同Locale下的小数点差异
+     *
+     * @param hundredths 数值的100倍
+     */
+    private static void appendFixed(StringBuilder sb, long hundredths) {
+        if (hundredths < 0) {
+            sb.append('-');
+            hundredths = -hundredths;
+        }
+        sb.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        sb.append(fraction);
+    }
+
+    private static void appendString(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0, length = value.length(); i < length; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append("\\u00");
+                        sb.append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        sb.append(c);
+                    }
+                    break;
+            }
+        }
+        sb.append('"');
+    }
+}
@@ -0,0 +1,83 @@
+package com.nightkyb.listtiledemo;
+
+import android.app.Activity;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.view.FrameMetrics;
+import android.view.Window;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RequiresApi;
+
+/**
+ * 基于{@link FrameMetrics}的卡顿统计，在后台线程接收每一帧的耗时并汇总到{@link FrameStats}。
+ * <p>
+ * 使用方式：{@link #start()}开始统计，操作结束后{@link #stop()}，再通过{@link #snapshot()}获取结果。
+ * 可以重复start/stop，结果会累加，需要重新统计时调用{@link #reset()}。
+ *
+ * @author nightkyb
+ */
+@RequiresApi(Build.VERSION_CODES.N)
+public final class JankReporter {
+    private final Window window;
+    private final FrameStats stats;
+    private HandlerThread thread;
+
+    private final Window.OnFrameMetricsAvailableListener listener = new Window.OnFrameMetricsAvailableListener() {
+        @Override
+        public void onFrameMetricsAvailable(Window window, FrameMetrics frameMetrics, int dropCountSinceLastInvocation) {
+            synchronized (stats) {
+                stats.addDroppedReports(dropCountSinceLastInvocation);
+                // 第一帧包括布局初始化，不计入统计，FIRST_DRAW_FRAME在API 26才提供
+                if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O
+                        || frameMetrics.getMetric(FrameMetrics.FIRST_DRAW_FRAME) == 0) {
+                    stats.addFrame(frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION));
+                }
+            }
+        }
+    };
+
+    public JankReporter(@NonNull Activity activity) {
+        window = activity.getWindow();
+        stats = FrameStats.forRefreshRate(activity.getWindowManager().getDefaultDisplay().getRefreshRate());
+    }
+
+    public boolean isRunning() {
+        return thread != null;
+    }
+
+    public void start() {
+        if (thread != null) {
+            return;
+        }
+        thread = new HandlerThread("JankReporter");
+        thread.start();
+        window.addOnFrameMetricsAvailableListener(listener, new Handler(thread.getLooper()));
+    }
+
+    public void stop() {
+        if (thread == null) {
+            return;
+        }
+        window.removeOnFrameMetricsAvailableListener(listener);
+        thread.quitSafely();
+        thread = null;
+    }
+
+    public void reset() {
+        synchronized (stats) {
+            stats.reset();
+        }
+    }
+
+    /**
+     * 获取当前统计结果的副本
+     */
+    @NonNull
+    public FrameStats snapshot() {
+        synchronized (stats) {
+            return stats.copy();
+        }
+    }
+}
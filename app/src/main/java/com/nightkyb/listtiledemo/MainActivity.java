@@ -1,5 +1,6 @@
 package com.nightkyb.listtiledemo;
 
+import android.content.Intent;
 import android.os.Bundle;
 import android.view.View;
 
@@ -28,5 +29,12 @@ public class MainActivity extends AppCompatActivity {
                 listTile.setExtraText("哈1.0.0版本本本版本本版本版本本本本版本版本本本本版本版哈哈哈哈哈哈哈哈哈哈哈哈哈哈哈哈哈哈哈哈哈哈哈哈哈哈哈哈哈哈哈哈哈哈");
             }
         });
+
+        findViewById(R.id.stressTile).setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View view) {
+                startActivity(new Intent(MainActivity.this, StressActivity.class));
+            }
+        });
     }
 }
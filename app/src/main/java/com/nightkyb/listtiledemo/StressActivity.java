@@ -0,0 +1,232 @@
+package com.nightkyb.listtiledemo;
+
+import android.os.Build;
+import android.os.Bundle;
+import android.util.Log;
+import android.view.Menu;
+import android.view.MenuItem;
+import android.widget.Toast;
+
+import androidx.annotation.LayoutRes;
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AlertDialog;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.nightkyb.listtile.ListTileAdapter;
+import com.nightkyb.listtile.ListTileModel;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 滚动性能测试：10000行混合形态的列表，以固定速度从头滚动到尾，统计卡顿帧并导出JSON。
+ * <p>
+ * 每次测试的结果写入{@code getExternalFilesDir(null)/jank-<模式>-<时间>.json}，同时输出到Logcat（tag为StressActivity），
+ * 可以通过adb pull比较不同模式、不同版本的结果。
+ *
+ * @author nightkyb
+ */
+public class StressActivity extends AppCompatActivity {
+    private static final String TAG = "StressActivity";
+
+    private static final int ITEM_COUNT = 10_000;
+    /**
+     * 每帧滚动的距离
+     */
+    private static final int SCROLL_STEP_DP = 48;
+
+    private static final String LONG_TEXT = "这是一段很长的extra文本，用于测试溢出时title与extra之间的宽度分配，以及多行文本的排版开销";
+
+    private RecyclerView recyclerView;
+    private List<ListTileModel> models;
+    private String mode;
+    private JankReporter jankReporter;
+    private boolean running;
+    private int scrollStep;
+
+    private final Runnable scrollRunnable = new Runnable() {
+        @Override
+        public void run() {
+            if (!running) {
+                return;
+            }
+            if (recyclerView.canScrollVertically(1)) {
+                recyclerView.scrollBy(0, scrollStep);
+                recyclerView.postOnAnimation(this);
+            } else {
+                finishRun();
+            }
+        }
+    };
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_stress);
+        setTitle(R.string.stress_title);
+
+        scrollStep = Math.round(SCROLL_STEP_DP * getResources().getDisplayMetrics().density);
+        models = createModels();
+
+        recyclerView = findViewById(R.id.recyclerView);
+        recyclerView.setLayoutManager(new LinearLayoutManager(this));
+        setMode(getString(R.string.stress_mode_views), R.layout.item_stress_tile);
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+            jankReporter = new JankReporter(this);
+        }
+    }
+
+    @Override
+    protected void onDestroy() {
+        running = false;
+        recyclerView.removeCallbacks(scrollRunnable);
+        if (jankReporter != null) {
+            jankReporter.stop();
+        }
+        super.onDestroy();
+    }
+
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.menu_stress, menu);
+        return true;
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(@NonNull MenuItem item) {
+        int id = item.getItemId();
+        if (id == R.id.action_run) {
+            startRun();
+            return true;
+        }
+        if (running) {
+            return true;
+        }
+        if (id == R.id.action_mode_views) {
+            item.setChecked(true);
+            setMode(item.getTitle().toString(), R.layout.item_stress_tile);
+            return true;
+        } else if (id == R.id.action_mode_flat) {
+            item.setChecked(true);
+            setMode(item.getTitle().toString(), R.layout.item_stress_tile_flat);
+            return true;
+        } else if (id == R.id.action_mode_flat_cached) {
+            item.setChecked(true);
+            setMode(item.getTitle().toString(), R.layout.item_stress_tile_flat_cached);
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+
+    private void setMode(@NonNull String mode, @LayoutRes int layoutRes) {
+        this.mode = mode;
+        ListTileAdapter adapter = new ListTileAdapter(layoutRes);
+        // 列表项由构建时生成的代码创建，不经过inflate
+        adapter.setTileFactory(ListTileLayouts.INSTANCE);
+        recyclerView.setAdapter(adapter);
+        adapter.submitList(models);
+    }
+
+    private void startRun() {
+        if (running) {
+            return;
+        }
+        running = true;
+        recyclerView.scrollToPosition(0);
+
+        if (jankReporter != null) {
+            jankReporter.reset();
+            jankReporter.start();
+        } else {
+            Toast.makeText(this, R.string.stress_unsupported, Toast.LENGTH_SHORT).show();
+        }
+        recyclerView.postOnAnimation(scrollRunnable);
+    }
+
+    private void finishRun() {
+        running = false;
+        if (jankReporter == null) {
+            return;
+        }
+        jankReporter.stop();
+
+        FrameStats stats = jankReporter.snapshot();
+        String json = stats.toJson(mode);
+        Log.i(TAG, json);
+        File file = writeReport(json);
+
+        new AlertDialog.Builder(this)
+                .setTitle(mode)
+                .setMessage("帧数：" + stats.getFrameCount()
+                        + "\n卡顿帧：" + stats.getJankCount() + "（" + Math.round(stats.getJankPercent() * 100) / 100.0 + "%）"
+                        + "\n冻结帧：" + stats.getFrozenCount()
+                        + "\np90：" + stats.getPercentileNanos(90) / 1000 / 1000.0 + "ms"
+                        + "\np99：" + stats.getPercentileNanos(99) / 1000 / 1000.0 + "ms"
+                        + (file != null ? "\n\n" + file.getAbsolutePath() : ""))
+                .setPositiveButton(android.R.string.ok, null)
+                .show();
+    }
+
+    private File writeReport(@NonNull String json) {
+        File dir = getExternalFilesDir(null);
+        if (dir == null) {
+            return null;
+        }
+        String name = mode.replaceAll("[^\\w]+", "_");
+        File file = new File(dir, "jank-" + name + "-" + System.currentTimeMillis() + ".json");
+        OutputStream out = null;
+        try {
+            out = new FileOutputStream(file);
+            out.write(json.getBytes(Charset.forName("UTF-8")));
+            return file;
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to write " + file, e);
+            return null;
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * 5种形态交替出现：长extra文本、leading+subtitle、extra图片、位图leading+长subtitle、多行extra
+     */
+    @NonNull
+    private static List<ListTileModel> createModels() {
+        List<ListTileModel> models = new ArrayList<>(ITEM_COUNT);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            ListTileModel.Builder builder = new ListTileModel.Builder().id(i).title("第" + i + "行");
+            switch (i % 5) {
+                case 0:
+                    builder.extra(LONG_TEXT).trailing(R.drawable.ic_arrow_right_24dp);
+                    break;
+                case 1:
+                    builder.leading(R.drawable.ic_modify_password_24dp).subtitle("副标题 " + i).extra("v1.0." + i);
+                    break;
+                case 2:
+                    builder.extraImage(R.drawable.ic_profile).trailing(R.drawable.ic_navigate_next_black_24dp);
+                    break;
+                case 3:
+                    builder.leading(R.drawable.ic_profile).subtitle(LONG_TEXT).trailing(R.drawable.ic_arrow_right_24dp);
+                    break;
+                default:
+                    builder.extra(LONG_TEXT + "\n" + LONG_TEXT);
+                    break;
+            }
+            models.add(builder.build());
+        }
+        return models;
+    }
+}
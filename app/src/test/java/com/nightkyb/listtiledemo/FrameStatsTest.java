@@ -0,0 +1,103 @@
+package com.nightkyb.listtiledemo;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link FrameStats}的统计与JSON导出
+ *
+ * @author nightkyb
+ */
+public class FrameStatsTest {
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void countsJankAndFrozenFrames() {
+        FrameStats stats = new FrameStats(16 * MS);
+        stats.addFrame(10 * MS);
+        stats.addFrame(16 * MS);
+        stats.addFrame(17 * MS);
+        stats.addFrame(800 * MS);
+
+        assertEquals(4, stats.getFrameCount());
+        assertEquals(2, stats.getJankCount());
+        assertEquals(1, stats.getFrozenCount());
+        assertEquals(50.0, stats.getJankPercent(), 0.0001);
+        assertEquals(800 * MS, stats.getMaxNanos());
+        assertEquals((10 + 16 + 17 + 800) * MS / 4, stats.getAverageNanos());
+    }
+
+    @Test
+    public void percentileUsesNearestRank() {
+        FrameStats stats = new FrameStats(16 * MS);
+        for (int i = 100; i >= 1; i--) {
+            stats.addFrame(i * MS);
+        }
+
+        assertEquals(1 * MS, stats.getPercentileNanos(0));
+        assertEquals(50 * MS, stats.getPercentileNanos(50));
+        assertEquals(90 * MS, stats.getPercentileNanos(90));
+        assertEquals(99 * MS, stats.getPercentileNanos(99));
+        assertEquals(100 * MS, stats.getPercentileNanos(100));
+        // 记录顺序不受排序影响
+        assertEquals(100 * MS, stats.getFrameNanos(0));
+    }
+
+    @Test
+    public void emptyStats() {
+        FrameStats stats = new FrameStats(16 * MS);
+
+        assertEquals(0, stats.getJankPercent(), 0);
+        assertEquals(0, stats.getAverageNanos());
+        assertEquals(0, stats.getPercentileNanos(99));
+        assertEquals("{\"label\":\"empty\",\"frames\":0,\"jankFrames\":0,\"frozenFrames\":0,\"droppedReports\":0,"
+                        + "\"jankPercent\":0.00,\"frameBudgetMs\":16.00,\"averageMs\":0.00,\"p50Ms\":0.00,"
+                        + "\"p90Ms\":0.00,\"p99Ms\":0.00,\"maxMs\":0.00,\"durationsMs\":[]}",
+                stats.toJson("empty"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidPercentile() {
+        new FrameStats(16 * MS).getPercentileNanos(101);
+    }
+
+    @Test
+    public void forRefreshRate() {
+        assertEquals(16_666_667L, FrameStats.forRefreshRate(60).getFrameBudgetNanos());
+        assertEquals(8_333_333L, FrameStats.forRefreshRate(120).getFrameBudgetNanos());
+    }
+
+    @Test
+    public void toJsonRoundsToHundredthsAndEscapesLabel() {
+        FrameStats stats = new FrameStats(16_666_666L);
+        stats.addFrame(8_004_999L);
+        stats.addFrame(20_005_000L);
+        stats.addDroppedReports(3);
+
+        String json = stats.toJson("flat \"cached\"\n");
+        assertTrue(json, json.startsWith("{\"label\":\"flat \\\"cached\\\"\\n\",\"frames\":2,\"jankFrames\":1,"));
+        assertTrue(json, json.contains("\"droppedReports\":3,"));
+        assertTrue(json, json.contains("\"jankPercent\":50.00,"));
+        assertTrue(json, json.contains("\"frameBudgetMs\":16.67,"));
+        assertTrue(json, json.endsWith("\"maxMs\":20.01,\"durationsMs\":[8.00,20.01]}"));
+    }
+
+    @Test
+    public void copyIsIndependentAndResetClears() {
+        FrameStats stats = new FrameStats(16 * MS);
+        stats.addFrame(20 * MS);
+        FrameStats copy = stats.copy();
+
+        stats.addFrame(30 * MS);
+        assertEquals(1, copy.getFrameCount());
+        assertEquals(20 * MS, copy.getMaxNanos());
+
+        stats.reset();
+        assertEquals(0, stats.getFrameCount());
+        assertEquals(0, stats.getJankCount());
+        assertEquals(0, stats.getMaxNanos());
+        assertEquals(1, copy.getFrameCount());
+    }
+}
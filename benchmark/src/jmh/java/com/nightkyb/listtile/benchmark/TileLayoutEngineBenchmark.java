@@ -0,0 +1,105 @@
+package com.nightkyb.listtile.benchmark;
+
+import com.nightkyb.listtile.TileLayoutEngine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TileLayoutEngine}的测量和布局吞吐量，覆盖不同的槽位组合以及title、extra溢出的情况。
+ * 尺寸取自demo中1080px宽屏幕上的典型列表项。
+ *
+ * @author nightkyb
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TileLayoutEngineBenchmark {
+    private static final int WIDTH = 1080;
+
+    /**
+     * 槽位组合：只有title、leading + title + subtitle、全部槽位
+     */
+    @Param({"TITLE", "LEADING_TITLE_SUBTITLE", "ALL"})
+    public String slots;
+
+    /**
+     * 溢出情况：不溢出、title溢出、extra溢出、两者都溢出
+     */
+    @Param({"NONE", "TITLE", "EXTRA", "BOTH"})
+    public String overflow;
+
+    /**
+     * 溢出策略，参见TileLayoutEngine.POLICY_*
+     */
+    @Param({"0", "3"})
+    public int policy;
+
+    private final TileLayoutEngine engine = new TileLayoutEngine();
+
+    private int titleWidth;
+    private int extraWidth;
+
+    @Setup
+    public void setup() {
+        engine.setPadding(48, 24, 48, 24);
+        engine.setMargins(48, 24, 12, 24);
+        engine.setOverflowPolicy(policy);
+        engine.setMinWidths(120, 96);
+
+        titleWidth = 300;
+        extraWidth = 150;
+        if ("TITLE".equals(overflow)) {
+            titleWidth = 1500;
+        } else if ("EXTRA".equals(overflow)) {
+            extraWidth = 1500;
+        } else if ("BOTH".equals(overflow)) {
+            titleWidth = 900;
+            extraWidth = 900;
+        }
+    }
+
+    @Benchmark
+    public void measureAndLayout(Blackhole bh) {
+        engine.setSlot(TileLayoutEngine.TITLE, titleWidth, 57);
+        if ("TITLE".equals(slots)) {
+            engine.clearSlot(TileLayoutEngine.LEADING);
+            engine.clearSlot(TileLayoutEngine.SUBTITLE);
+        } else {
+            engine.setSlot(TileLayoutEngine.LEADING, 72, 72);
+            engine.setSlot(TileLayoutEngine.SUBTITLE, titleWidth / 2, 48);
+        }
+        if ("ALL".equals(slots)) {
+            engine.setSlot(TileLayoutEngine.EXTRA, extraWidth, 48);
+            engine.setSlot(TileLayoutEngine.TRAILING, 48, 48);
+        } else {
+            engine.clearSlot(TileLayoutEngine.EXTRA);
+            engine.clearSlot(TileLayoutEngine.TRAILING);
+        }
+
+        int width = engine.measureWidth();
+        if (engine.resolveOverflow(WIDTH)) {
+            if (engine.isTitleShrunk()) {
+                engine.setSlot(TileLayoutEngine.TITLE, engine.getTitleWidth(), engine.getHeight(TileLayoutEngine.TITLE));
+            }
+            if (engine.isExtraShrunk()) {
+                engine.setSlot(TileLayoutEngine.EXTRA, engine.getExtraWidth(), engine.getHeight(TileLayoutEngine.EXTRA));
+            }
+        }
+        int height = engine.measureHeight();
+        engine.layout(WIDTH, height);
+
+        bh.consume(width);
+        bh.consume(engine.getLeft(TileLayoutEngine.EXTRA));
+        bh.consume(engine.getTop(TileLayoutEngine.TITLE));
+    }
+}
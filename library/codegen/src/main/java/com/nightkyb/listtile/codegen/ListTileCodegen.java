@@ -0,0 +1,943 @@
+package com.nightkyb.listtile.codegen;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+/**
+ * 根据res/layout中根布局为ListTile的布局生成{@code ListTileLayouts}，实现{@code ListTileFactory}。
+ * <p>
+ * {@code lt_*}属性转换为{@code ListTileStyle.Builder}的调用，style属性作为Builder的基础样式，在运行时只解析一次并缓存；
+ * padding、背景等View本身的属性（包括style中的）在构建时沿样式继承链解析，直接生成setter调用。
+ * 尺寸、颜色、文本等资源引用和主题属性仍然在运行时获取，生成的代码与屏幕密度、深色模式等配置无关。
+ * <p>
+ * 以下布局不会生成，运行时返回null并回退到inflate，原因输出为构建警告：
+ * 有限定符版本（例如layout-land）的布局或样式、包含无法在构建时确定的属性或属性值、
+ * 没有style属性但主题中的listTileStyle设置了不同的View属性。
+ * <p>
+ * 只处理根布局为ListTile并且没有子View的布局，嵌套在其他布局中的ListTile仍然随布局inflate，同样输出为构建警告。
+ * 外层布局本身需要inflate，LayoutInflater已经解析出ListTile的AttributeSet，通过{@code LayoutInflater.Factory2}
+ * 替换为生成的代码只能省去ListTile自身的属性解析，而这部分已经由ListTileStyleCache按(属性, 样式, 主题)缓存；
+ * Factory2还需要依靠android:id区分同一布局中的多个ListTile，并与AppCompat的Factory2串联，收益不抵复杂度。
+ *
+ * @author nightkyb
+ */
+public final class ListTileCodegen {
+    public static final String CLASS_NAME = "ListTileLayouts";
+
+    private static final String LIST_TILE = "com.nightkyb.listtile.ListTile";
+    private static final String DEFAULT_STYLE = "ListTileStyle";
+    private static final String THEME_STYLE_ATTR = "listTileStyle";
+
+    private static final String NS_ANDROID = "http://schemas.android.com/apk/res/android";
+    private static final String NS_APP = "http://schemas.android.com/apk/res-auto";
+    private static final String NS_TOOLS = "http://schemas.android.com/tools";
+    private static final String NS_XMLNS = "http://www.w3.org/2000/xmlns/";
+
+    private static final Pattern DIMENSION = Pattern.compile("(-?\\d+(?:\\.\\d+)?|-?\\.\\d+)(dp|dip|sp|px|pt|in|mm)");
+    private static final Pattern COLOR = Pattern.compile("#([0-9a-fA-F]{3,4}|[0-9a-fA-F]{6}|[0-9a-fA-F]{8})");
+    private static final Pattern RESOURCE = Pattern.compile("@(\\+)?(android:)?(\\w+)/([\\w.]+)");
+    private static final Pattern ATTRIBUTE = Pattern.compile("\\?(android:)?(?:attr/)?(\\w+)");
+
+    private static final Map<String, String> DIMENSION_UNITS = new HashMap<>();
+    private static final Map<String, String> OVERFLOW_POLICIES = new HashMap<>();
+
+    static {
+        DIMENSION_UNITS.put("dp", "TypedValue.COMPLEX_UNIT_DIP");
+        DIMENSION_UNITS.put("dip", "TypedValue.COMPLEX_UNIT_DIP");
+        DIMENSION_UNITS.put("sp", "TypedValue.COMPLEX_UNIT_SP");
+        DIMENSION_UNITS.put("px", "TypedValue.COMPLEX_UNIT_PX");
+        DIMENSION_UNITS.put("pt", "TypedValue.COMPLEX_UNIT_PT");
+        DIMENSION_UNITS.put("in", "TypedValue.COMPLEX_UNIT_IN");
+        DIMENSION_UNITS.put("mm", "TypedValue.COMPLEX_UNIT_MM");
+
+        OVERFLOW_POLICIES.put("wider_shrinks", "ListTile.OverflowPolicy.WIDER_SHRINKS");
+        OVERFLOW_POLICIES.put("keep_title", "ListTile.OverflowPolicy.KEEP_TITLE");
+        OVERFLOW_POLICIES.put("keep_extra", "ListTile.OverflowPolicy.KEEP_EXTRA");
+        OVERFLOW_POLICIES.put("proportional", "ListTile.OverflowPolicy.PROPORTIONAL");
+    }
+
+    /**
+     * 可以出现在布局或ListTile样式中的View属性
+     */
+    private static final Set<String> VIEW_ATTRS = new HashSet<>(Arrays.asList(
+            "id", "layout_width", "layout_height",
+            "layout_margin", "layout_marginHorizontal", "layout_marginVertical",
+            "layout_marginStart", "layout_marginEnd", "layout_marginLeft", "layout_marginRight",
+            "layout_marginTop", "layout_marginBottom",
+            "padding", "paddingHorizontal", "paddingVertical",
+            "paddingStart", "paddingEnd", "paddingLeft", "paddingRight", "paddingTop", "paddingBottom",
+            "background", "minHeight", "clickable", "focusable", "visibility", "contentDescription"));
+
+    private enum Kind {
+        TEXT, DRAWABLE, DIMENSION, COLOR, STYLE, BOOLEAN, OVERFLOW_POLICY
+    }
+
+    /**
+     * lt_*属性对应的Builder方法，lt_extra和lt_extra_type单独处理
+     */
+    private static final Map<String, Setter> SETTERS = new LinkedHashMap<>();
+
+    static {
+        setter("lt_leading", "leading", Kind.DRAWABLE);
+        setter("lt_trailing", "trailing", Kind.DRAWABLE);
+        setter("lt_title", "title", Kind.TEXT);
+        setter("lt_subtitle", "subtitle", Kind.TEXT);
+        setter("lt_leading_size", "leadingSize", Kind.DIMENSION);
+        setter("lt_trailing_size", "trailingSize", Kind.DIMENSION);
+        setter("lt_extra_size", "extraSize", Kind.DIMENSION);
+        setter("lt_title_textAppearance", "titleTextAppearance", Kind.STYLE);
+        setter("lt_subtitle_textAppearance", "subtitleTextAppearance", Kind.STYLE);
+        setter("lt_extra_textAppearance", "extraTextAppearance", Kind.STYLE);
+        setter("lt_leading_color", "leadingColor", Kind.COLOR);
+        setter("lt_trailing_color", "trailingColor", Kind.COLOR);
+        setter("lt_title_color", "titleColor", Kind.COLOR);
+        setter("lt_subtitle_color", "subtitleColor", Kind.COLOR);
+        setter("lt_extra_color", "extraColor", Kind.COLOR);
+        setter("lt_leading_right_margin", "leadingRightMargin", Kind.DIMENSION);
+        setter("lt_trailing_left_margin", "trailingLeftMargin", Kind.DIMENSION);
+        setter("lt_subtitle_top_margin", "subtitleTopMargin", Kind.DIMENSION);
+        setter("lt_extra_left_margin", "extraLeftMargin", Kind.DIMENSION);
+        setter("lt_flat", "flat", Kind.BOOLEAN);
+        setter("lt_stable_size", "stableSize", Kind.BOOLEAN);
+        setter("lt_display_list_cache", "displayListCache", Kind.BOOLEAN);
+        setter("lt_rasterize_icons", "rasterizeIcons", Kind.BOOLEAN);
+        setter("lt_overflow_policy", "overflowPolicy", Kind.OVERFLOW_POLICY);
+        setter("lt_title_min_width", "titleMinWidth", Kind.DIMENSION);
+        setter("lt_extra_min_width", "extraMinWidth", Kind.DIMENSION);
+    }
+
+    private static void setter(String attr, String method, Kind kind) {
+        SETTERS.put(attr, new Setter(method, kind));
+    }
+
+    private final String packageName;
+    private final List<File> resDirs;
+    private final List<String> warnings = new ArrayList<>();
+
+    private final Map<String, Style> styles = new HashMap<>();
+    /**
+     * 在带限定符的values目录中定义过的样式
+     */
+    private final Set<String> qualifiedStyles = new HashSet<>();
+    /**
+     * 主题中listTileStyle属性引用的样式
+     */
+    private final Set<String> themeTileStyles = new LinkedHashSet<>();
+    private final Map<String, File> layouts = new TreeMap<>();
+    /**
+     * 存在带限定符版本的布局
+     */
+    private final Set<String> qualifiedLayouts = new HashSet<>();
+
+    /**
+     * @param packageName R类所在的包，生成的类也位于该包中
+     * @param resDirs     资源目录，优先级从低到高，包括ListTile库自身的资源目录
+     */
+    public ListTileCodegen(String packageName, List<File> resDirs) {
+        this.packageName = packageName;
+        this.resDirs = resDirs;
+    }
+
+    /**
+     * 读取AndroidManifest.xml中的package
+     */
+    public static String readPackage(File manifest) throws IOException {
+        String packageName = parse(manifest).getDocumentElement().getAttribute("package");
+        if (packageName.isEmpty()) {
+            throw new IOException("No package declared in " + manifest);
+        }
+        return packageName;
+    }
+
+    /**
+     * 没有生成的布局及原因
+     */
+    public List<String> getWarnings() {
+        return Collections.unmodifiableList(warnings);
+    }
+
+    /**
+     * 在outputDir中按包名生成ListTileLayouts.java
+     *
+     * @return 生成的文件
+     */
+    public File generate(File outputDir) throws IOException {
+        String source = generateSource();
+        File dir = new File(outputDir, packageName.replace('.', File.separatorChar));
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        File file = new File(dir, CLASS_NAME + ".java");
+        try (Writer writer = new OutputStreamWriter(Files.newOutputStream(file.toPath()), StandardCharsets.UTF_8)) {
+            writer.write(source);
+        }
+        return file;
+    }
+
+    public String generateSource() throws IOException {
+        warnings.clear();
+        scanResources();
+
+        Map<String, String> methods = new LinkedHashMap<>();
+        for (Map.Entry<String, File> entry : layouts.entrySet()) {
+            String name = entry.getKey();
+            Element root = parse(entry.getValue()).getDocumentElement();
+            if (!LIST_TILE.equals(root.getTagName())) {
+                if (root.getElementsByTagName(LIST_TILE).getLength() > 0) {
+                    warn(name, "ListTile is not the root view");
+                }
+                continue;
+            }
+            if (qualifiedLayouts.contains(name)) {
+                warn(name, "layout has qualified variants");
+                continue;
+            }
+
+            try {
+                methods.put(name, generateMethod(name, root));
+            } catch (UnsupportedException e) {
+                warn(name, e.getMessage());
+            }
+        }
+        return generateClass(methods);
+    }
+
+    private void warn(String layout, String reason) {
+        warnings.add("R.layout." + layout + " is inflated at runtime: " + reason);
+    }
+
+    private void scanResources() throws IOException {
+        styles.clear();
+        qualifiedStyles.clear();
+        themeTileStyles.clear();
+        layouts.clear();
+        qualifiedLayouts.clear();
+
+        for (File resDir : resDirs) {
+            File[] dirs = resDir.listFiles();
+            if (dirs == null) {
+                continue;
+            }
+            Arrays.sort(dirs);
+            for (File dir : dirs) {
+                String dirName = dir.getName();
+                if (dirName.equals("values") || dirName.startsWith("values-")) {
+                    for (File file : xmlFiles(dir)) {
+                        scanValues(file, dirName.equals("values"));
+                    }
+                } else if (dirName.equals("layout")) {
+                    for (File file : xmlFiles(dir)) {
+                        layouts.put(resourceName(file), file);
+                    }
+                } else if (dirName.startsWith("layout-")) {
+                    for (File file : xmlFiles(dir)) {
+                        qualifiedLayouts.add(resourceName(file));
+                    }
+                }
+            }
+        }
+    }
+
+    private void scanValues(File file, boolean unqualified) throws IOException {
+        NodeList nodes = parse(file).getDocumentElement().getElementsByTagName("style");
+        for (int i = 0; i < nodes.getLength(); i++) {
+            Element element = (Element) nodes.item(i);
+            String name = element.getAttribute("name");
+            Map<String, String> items = new LinkedHashMap<>();
+            NodeList itemNodes = element.getElementsByTagName("item");
+            for (int j = 0; j < itemNodes.getLength(); j++) {
+                Element item = (Element) itemNodes.item(j);
+                String itemName = item.getAttribute("name");
+                String value = item.getTextContent().trim();
+                items.put(itemName, value);
+                if (itemName.equals(THEME_STYLE_ATTR)) {
+                    themeTileStyles.add(value);
+                }
+            }
+
+            if (unqualified) {
+                String parent = element.hasAttribute("parent") ? element.getAttribute("parent") : null;
+                styles.put(name, new Style(parent, items));
+            } else {
+                qualifiedStyles.add(name);
+            }
+        }
+    }
+
+    private String generateMethod(String layout, Element root) throws UnsupportedException {
+        if (hasChildElements(root)) {
+            throw new UnsupportedException("ListTile must not have children");
+        }
+
+        String styleRef = null;
+        Map<String, String> viewAttrs = new LinkedHashMap<>();
+        Map<String, String> tileAttrs = new LinkedHashMap<>();
+        NamedNodeMap attributes = root.getAttributes();
+        for (int i = 0; i < attributes.getLength(); i++) {
+            Attr attr = (Attr) attributes.item(i);
+            String ns = attr.getNamespaceURI();
+            String name = attr.getLocalName() != null ? attr.getLocalName() : attr.getName();
+            if (NS_XMLNS.equals(ns) || NS_TOOLS.equals(ns)) {
+                continue;
+            }
+            if (ns == null && name.equals("style")) {
+                styleRef = attr.getValue();
+            } else if (NS_ANDROID.equals(ns) && VIEW_ATTRS.contains(name)) {
+                viewAttrs.put(name, attr.getValue());
+            } else if (NS_APP.equals(ns) && (SETTERS.containsKey(name) || name.equals("lt_extra") || name.equals("lt_extra_type"))) {
+                tileAttrs.put(name, attr.getValue());
+            } else {
+                throw new UnsupportedException("unsupported attribute " + attr.getName());
+            }
+        }
+
+        // View属性：样式继承链中的值被布局中的值覆盖
+        String styleName;
+        if (styleRef != null) {
+            Matcher matcher = RESOURCE.matcher(styleRef);
+            if (!matcher.matches() || matcher.group(2) != null || !matcher.group(3).equals("style")) {
+                throw new UnsupportedException("unsupported style " + styleRef);
+            }
+            styleName = matcher.group(4);
+        } else {
+            styleName = DEFAULT_STYLE;
+            Map<String, String> defaults = resolveViewAttrs(DEFAULT_STYLE);
+            for (String themeStyle : themeTileStyles) {
+                String name = themeStyle.startsWith("@style/") ? themeStyle.substring("@style/".length()) : themeStyle;
+                if (!resolveViewAttrs(name).equals(defaults)) {
+                    throw new UnsupportedException("no style attribute, and theme attribute listTileStyle "
+                            + themeStyle + " sets different view attributes than " + DEFAULT_STYLE);
+                }
+            }
+        }
+        Map<String, String> merged = new LinkedHashMap<>(resolveViewAttrs(styleName));
+        merged.putAll(viewAttrs);
+
+        StringBuilder body = new StringBuilder();
+        body.append("        ListTileStyle style = new ListTileStyle.Builder(context");
+        if (styleRef != null) {
+            body.append(", R.style.").append(field(styleName));
+        }
+        body.append(')');
+        appendTileAttrs(body, tileAttrs);
+        body.append("\n                .build();\n");
+        body.append("        ListTile tile = new ListTile(context, style);\n");
+        appendViewAttrs(body, merged);
+        body.append("        return tile;\n");
+
+        return "    /**\n"
+                + "     * {@code R.layout." + layout + "}\n"
+                + "     */\n"
+                + "    @NonNull\n"
+                + "    public static ListTile " + methodName(layout) + "(@NonNull Context context) {\n"
+                + body
+                + "    }\n";
+    }
+
+    private void appendTileAttrs(StringBuilder body, Map<String, String> attrs) throws UnsupportedException {
+        for (Map.Entry<String, String> entry : attrs.entrySet()) {
+            String name = entry.getKey();
+            String value = entry.getValue();
+            if (name.equals("lt_extra_type")) {
+                checkExtraType(attrs, value);
+                continue;
+            }
+
+            String call;
+            if (name.equals("lt_extra")) {
+                // extra的类型由属性值决定：图片资源为image，其他为text
+                String drawable = drawableExpression(value);
+                call = drawable != null ? "extraImage(" + drawable + ")" : "extra(" + expression(Kind.TEXT, value) + ")";
+            } else {
+                Setter setter = SETTERS.get(name);
+                call = setter.method + "(" + expression(setter.kind, value) + ")";
+            }
+            body.append("\n                .").append(call);
+        }
+    }
+
+    private void checkExtraType(Map<String, String> attrs, String type) throws UnsupportedException {
+        String extra = attrs.get("lt_extra");
+        if (extra == null) {
+            throw new UnsupportedException("lt_extra_type without lt_extra");
+        }
+        boolean image = drawableExpression(extra) != null;
+        if (!type.equals(image ? "image" : "text")) {
+            throw new UnsupportedException("lt_extra_type=\"" + type + "\" does not match lt_extra=\"" + extra + "\"");
+        }
+    }
+
+    private void appendViewAttrs(StringBuilder body, Map<String, String> attrs) throws UnsupportedException {
+        String id = attrs.get("id");
+        if (id != null) {
+            Matcher matcher = RESOURCE.matcher(id);
+            if (!matcher.matches() || !matcher.group(3).equals("id")) {
+                throw new UnsupportedException("unsupported id " + id);
+            }
+            body.append("        tile.setId(").append(resourceField(matcher)).append(");\n");
+        }
+
+        // 与View相同：padding优先于paddingHorizontal/paddingVertical，两者优先于单独的各边
+        String start = first(attrs, "padding", "paddingHorizontal", "paddingStart", "paddingLeft");
+        String end = first(attrs, "padding", "paddingHorizontal", "paddingEnd", "paddingRight");
+        String top = first(attrs, "padding", "paddingVertical", "paddingTop");
+        String bottom = first(attrs, "padding", "paddingVertical", "paddingBottom");
+        if (start != null || end != null || top != null || bottom != null) {
+            body.append("        tile.setPaddingRelative(\n")
+                    .append("                ").append(dimensionOrZero(start)).append(",\n")
+                    .append("                ").append(dimensionOrZero(top)).append(",\n")
+                    .append("                ").append(dimensionOrZero(end)).append(",\n")
+                    .append("                ").append(dimensionOrZero(bottom)).append(");\n");
+        }
+
+        String minHeight = attrs.get("minHeight");
+        if (minHeight != null) {
+            body.append("        tile.setMinimumHeight(").append(expression(Kind.DIMENSION, minHeight)).append(");\n");
+        }
+
+        String background = attrs.get("background");
+        if (background != null) {
+            appendBackground(body, background);
+        }
+
+        String clickable = attrs.get("clickable");
+        if (clickable != null) {
+            body.append("        tile.setClickable(").append(expression(Kind.BOOLEAN, clickable)).append(");\n");
+        }
+        String focusable = attrs.get("focusable");
+        if (focusable != null) {
+            body.append("        tile.setFocusable(").append(expression(Kind.BOOLEAN, focusable)).append(");\n");
+        }
+        String visibility = attrs.get("visibility");
+        if (visibility != null) {
+            if (!visibility.matches("visible|invisible|gone")) {
+                throw new UnsupportedException("unsupported visibility " + visibility);
+            }
+            body.append("        tile.setVisibility(View.").append(visibility.toUpperCase(Locale.ROOT)).append(");\n");
+        }
+        String contentDescription = attrs.get("contentDescription");
+        if (contentDescription != null) {
+            body.append("        tile.setContentDescription(").append(expression(Kind.TEXT, contentDescription)).append(");\n");
+        }
+
+        appendLayoutParams(body, attrs);
+    }
+
+    private void appendBackground(StringBuilder body, String value) throws UnsupportedException {
+        if (value.equals("@null")) {
+            return;
+        }
+        Matcher color = COLOR.matcher(value);
+        if (color.matches()) {
+            body.append("        tile.setBackgroundColor(").append(colorLiteral(color.group(1))).append(");\n");
+            return;
+        }
+        Matcher resource = RESOURCE.matcher(value);
+        if (resource.matches() && resource.group(1) == null
+                && (resource.group(3).equals("drawable") || resource.group(3).equals("color") || resource.group(3).equals("mipmap"))) {
+            body.append("        tile.setBackgroundResource(").append(resourceField(resource)).append(");\n");
+            return;
+        }
+        Matcher attribute = ATTRIBUTE.matcher(value);
+        if (attribute.matches()) {
+            body.append("        tile.setBackgroundResource(resolveResourceId(context, ").append(attrField(attribute)).append("));\n");
+            return;
+        }
+        throw new UnsupportedException("unsupported background " + value);
+    }
+
+    private void appendLayoutParams(StringBuilder body, Map<String, String> attrs) throws UnsupportedException {
+        String width = attrs.get("layout_width");
+        String height = attrs.get("layout_height");
+        if (width == null || height == null) {
+            throw new UnsupportedException("layout_width and layout_height are required");
+        }
+        body.append("        ViewGroup.MarginLayoutParams params = new ViewGroup.MarginLayoutParams(")
+                .append(layoutSize(width)).append(", ").append(layoutSize(height)).append(");\n");
+
+        String start = first(attrs, "layout_margin", "layout_marginHorizontal", "layout_marginStart");
+        String end = first(attrs, "layout_margin", "layout_marginHorizontal", "layout_marginEnd");
+        String left = first(attrs, "layout_margin", "layout_marginHorizontal", "layout_marginLeft");
+        String right = first(attrs, "layout_margin", "layout_marginHorizontal", "layout_marginRight");
+        String top = first(attrs, "layout_margin", "layout_marginVertical", "layout_marginTop");
+        String bottom = first(attrs, "layout_margin", "layout_marginVertical", "layout_marginBottom");
+        if (left != null || top != null || right != null || bottom != null) {
+            body.append("        params.setMargins(\n")
+                    .append("                ").append(dimensionOrZero(left)).append(",\n")
+                    .append("                ").append(dimensionOrZero(top)).append(",\n")
+                    .append("                ").append(dimensionOrZero(right)).append(",\n")
+                    .append("                ").append(dimensionOrZero(bottom)).append(");\n");
+        }
+        if (start != null && !start.equals(left)) {
+            body.append("        params.setMarginStart(").append(expression(Kind.DIMENSION, start)).append(");\n");
+        }
+        if (end != null && !end.equals(right)) {
+            body.append("        params.setMarginEnd(").append(expression(Kind.DIMENSION, end)).append(");\n");
+        }
+        body.append("        tile.setLayoutParams(params);\n");
+    }
+
+    private String layoutSize(String value) throws UnsupportedException {
+        if (value.equals("match_parent") || value.equals("fill_parent")) {
+            return "ViewGroup.LayoutParams.MATCH_PARENT";
+        }
+        if (value.equals("wrap_content")) {
+            return "ViewGroup.LayoutParams.WRAP_CONTENT";
+        }
+        return expression(Kind.DIMENSION, value);
+    }
+
+    /**
+     * 沿样式继承链收集View属性，子样式的值覆盖父样式
+     */
+    private Map<String, String> resolveViewAttrs(String styleName) throws UnsupportedException {
+        List<Style> chain = new ArrayList<>();
+        Set<String> visited = new HashSet<>();
+        String name = styleName;
+        while (name != null) {
+            if (!visited.add(name)) {
+                throw new UnsupportedException("style " + styleName + " has a cyclic parent");
+            }
+            if (qualifiedStyles.contains(name)) {
+                throw new UnsupportedException("style " + name + " has qualified variants");
+            }
+            Style style = styles.get(name);
+            if (style == null) {
+                throw new UnsupportedException("style " + name + " is not declared in the project");
+            }
+            chain.add(style);
+            name = parentOf(name, style);
+        }
+
+        Map<String, String> attrs = new LinkedHashMap<>();
+        for (int i = chain.size() - 1; i >= 0; i--) {
+            for (Map.Entry<String, String> item : chain.get(i).items.entrySet()) {
+                String itemName = item.getKey();
+                if (!itemName.startsWith("android:")) {
+                    continue;
+                }
+                String attr = itemName.substring("android:".length());
+                if (!VIEW_ATTRS.contains(attr)) {
+                    throw new UnsupportedException("style " + styleName + " sets unsupported attribute " + itemName);
+                }
+                attrs.put(attr, item.getValue());
+            }
+        }
+        return attrs;
+    }
+
+    /**
+     * @return 没有父样式时返回null
+     */
+    private String parentOf(String name, Style style) throws UnsupportedException {
+        if (style.parent == null) {
+            // 隐式父样式：A.B的父样式为A
+            int dot = name.lastIndexOf('.');
+            return dot > 0 && styles.containsKey(name.substring(0, dot)) ? name.substring(0, dot) : null;
+        }
+        String parent = style.parent.trim();
+        if (parent.isEmpty()) {
+            return null;
+        }
+        if (parent.startsWith("@android:") || parent.startsWith("android:")) {
+            throw new UnsupportedException("style " + name + " inherits a framework style " + parent);
+        }
+        return parent.startsWith("@style/") ? parent.substring("@style/".length()) : parent;
+    }
+
+    /**
+     * 属性值对应的Java表达式
+     */
+    private String expression(Kind kind, String value) throws UnsupportedException {
+        Matcher resource = RESOURCE.matcher(value);
+        Matcher attribute = ATTRIBUTE.matcher(value);
+        switch (kind) {
+            case TEXT:
+                if (resource.matches() && resource.group(1) == null && resource.group(3).equals("string")) {
+                    return "context.getText(" + resourceField(resource) + ")";
+                }
+                if (value.startsWith("@") || value.startsWith("?")) {
+                    break;
+                }
+                return javaString(unescape(value));
+            case DRAWABLE:
+                String drawable = drawableExpression(value);
+                if (drawable != null) {
+                    return drawable;
+                }
+                break;
+            case DIMENSION:
+                Matcher dimension = DIMENSION.matcher(value);
+                if (dimension.matches()) {
+                    return "px(context, " + floatLiteral(dimension.group(1)) + ", " + DIMENSION_UNITS.get(dimension.group(2)) + ")";
+                }
+                if (resource.matches() && resource.group(1) == null && resource.group(3).equals("dimen")) {
+                    return "context.getResources().getDimensionPixelSize(" + resourceField(resource) + ")";
+                }
+                if (attribute.matches()) {
+                    return "resolveDimension(context, " + attrField(attribute) + ")";
+                }
+                break;
+            case COLOR:
+                Matcher color = COLOR.matcher(value);
+                if (color.matches()) {
+                    return colorLiteral(color.group(1));
+                }
+                if (resource.matches() && resource.group(1) == null && resource.group(3).equals("color")) {
+                    return "ContextCompat.getColor(context, " + resourceField(resource) + ")";
+                }
+                if (attribute.matches()) {
+                    return "resolveColor(context, " + attrField(attribute) + ")";
+                }
+                break;
+            case STYLE:
+                if (resource.matches() && resource.group(1) == null && resource.group(3).equals("style")) {
+                    return resourceField(resource);
+                }
+                if (attribute.matches()) {
+                    return "resolveResourceId(context, " + attrField(attribute) + ")";
+                }
+                break;
+            case BOOLEAN:
+                if (value.equals("true") || value.equals("false")) {
+                    return value;
+                }
+                break;
+            case OVERFLOW_POLICY:
+                String policy = OVERFLOW_POLICIES.get(value);
+                if (policy != null) {
+                    return policy;
+                }
+                break;
+            default:
+                break;
+        }
+        throw new UnsupportedException("unsupported value \"" + value + "\" for " + kind.name().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @return 不是图片资源时返回null
+     */
+    private static String drawableExpression(String value) {
+        if (value.equals("@null")) {
+            return "0";
+        }
+        Matcher resource = RESOURCE.matcher(value);
+        if (resource.matches() && resource.group(1) == null
+                && (resource.group(3).equals("drawable") || resource.group(3).equals("mipmap"))) {
+            return resourceField(resource);
+        }
+        return null;
+    }
+
+    private String dimensionOrZero(String value) throws UnsupportedException {
+        return value == null ? "0" : expression(Kind.DIMENSION, value);
+    }
+
+    private String generateClass(Map<String, String> methods) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("package ").append(packageName).append(";\n\n");
+        sb.append("import android.content.Context;\n");
+        sb.append("import android.util.TypedValue;\n");
+        sb.append("import android.view.View;\n");
+        sb.append("import android.view.ViewGroup;\n\n");
+        sb.append("import androidx.annotation.AttrRes;\n");
+        sb.append("import androidx.annotation.NonNull;\n");
+        sb.append("import androidx.annotation.Nullable;\n");
+        sb.append("import androidx.core.content.ContextCompat;\n\n");
+        sb.append("import com.nightkyb.listtile.ListTile;\n");
+        sb.append("import com.nightkyb.listtile.ListTileFactory;\n");
+        sb.append("import com.nightkyb.listtile.ListTileStyle;\n\n");
+        sb.append("/**\n");
+        sb.append(" * Generated by ListTile codegen.gradle from layouts whose root is a ListTile. Do not modify.\n");
+        sb.append(" */\n");
+        sb.append("@SuppressWarnings({\"unused\", \"UnnecessaryLocalVariable\"})\n");
+        sb.append("public final class ").append(CLASS_NAME).append(" implements ListTileFactory {\n");
+        sb.append("    public static final ").append(CLASS_NAME).append(" INSTANCE = new ").append(CLASS_NAME).append("();\n\n");
+        sb.append("    private ").append(CLASS_NAME).append("() {\n");
+        sb.append("    }\n\n");
+
+        sb.append("    @Nullable\n");
+        sb.append("    @Override\n");
+        sb.append("    public ListTile createTile(@NonNull Context context, int layoutRes) {\n");
+        for (String layout : methods.keySet()) {
+            sb.append("        if (layoutRes == R.layout.").append(layout).append(") {\n");
+            sb.append("            return ").append(methodName(layout)).append("(context);\n");
+            sb.append("        }\n");
+        }
+        sb.append("        return null;\n");
+        sb.append("    }\n");
+
+        for (String method : methods.values()) {
+            sb.append('\n').append(method);
+        }
+
+        sb.append('\n');
+        sb.append("    private static int px(@NonNull Context context, float value, int unit) {\n");
+        sb.append("        // 与Resources.getDimensionPixelSize()的取整规则相同\n");
+        sb.append("        float px = TypedValue.applyDimension(unit, value, context.getResources().getDisplayMetrics());\n");
+        sb.append("        int result = (int) (px >= 0 ? px + 0.5f : px - 0.5f);\n");
+        sb.append("        if (result != 0 || value == 0) {\n");
+        sb.append("            return result;\n");
+        sb.append("        }\n");
+        sb.append("        return value > 0 ? 1 : -1;\n");
+        sb.append("    }\n\n");
+        sb.append("    private static int resolveResourceId(@NonNull Context context, @AttrRes int attr) {\n");
+        sb.append("        TypedValue value = new TypedValue();\n");
+        sb.append("        return context.getTheme().resolveAttribute(attr, value, true) ? value.resourceId : 0;\n");
+        sb.append("    }\n\n");
+        sb.append("    private static int resolveColor(@NonNull Context context, @AttrRes int attr) {\n");
+        sb.append("        TypedValue value = new TypedValue();\n");
+        sb.append("        if (!context.getTheme().resolveAttribute(attr, value, true)) {\n");
+        sb.append("            return 0;\n");
+        sb.append("        }\n");
+        sb.append("        return value.resourceId != 0 ? ContextCompat.getColor(context, value.resourceId) : value.data;\n");
+        sb.append("    }\n\n");
+        sb.append("    private static int resolveDimension(@NonNull Context context, @AttrRes int attr) {\n");
+        sb.append("        TypedValue value = new TypedValue();\n");
+        sb.append("        if (!context.getTheme().resolveAttribute(attr, value, true)) {\n");
+        sb.append("            return 0;\n");
+        sb.append("        }\n");
+        sb.append("        return TypedValue.complexToDimensionPixelSize(value.data, context.getResources().getDisplayMetrics());\n");
+        sb.append("    }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private static String first(Map<String, String> attrs, String... names) {
+        for (String name : names) {
+            String value = attrs.get(name);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static String resourceField(Matcher resource) {
+        return (resource.group(2) != null ? "android.R." : "R.") + resource.group(3) + "." + field(resource.group(4));
+    }
+
+    private static String attrField(Matcher attribute) {
+        return (attribute.group(1) != null ? "android.R.attr." : "R.attr.") + attribute.group(2);
+    }
+
+    /**
+     * 资源名转为R类中的字段名
+     */
+    private static String field(String name) {
+        return name.replace('.', '_');
+    }
+
+    /**
+     * item_settings_row转为itemSettingsRow
+     */
+    static String methodName(String layout) {
+        StringBuilder sb = new StringBuilder(layout.length());
+        boolean upper = false;
+        for (int i = 0; i < layout.length(); i++) {
+            char c = layout.charAt(i);
+            if (c == '_') {
+                upper = sb.length() > 0;
+            } else {
+                sb.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String colorLiteral(String hex) {
+        if (hex.length() <= 4) {
+            // #RGB和#ARGB，每一位重复一次
+            StringBuilder expanded = new StringBuilder(8);
+            for (int i = 0; i < hex.length(); i++) {
+                expanded.append(hex.charAt(i)).append(hex.charAt(i));
+            }
+            hex = expanded.toString();
+        }
+        if (hex.length() == 6) {
+            hex = "FF" + hex;
+        }
+        return "0x" + hex.toUpperCase(Locale.ROOT);
+    }
+
+    private static String floatLiteral(String number) {
+        return (number.contains(".") ? number : number + ".0").replace("-.", "-0.") + "f";
+    }
+
+    /**
+     * 处理Android字符串资源中的转义
+     */
+    static String unescape(String value) {
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '\\' || i == value.length() - 1) {
+                sb.append(c);
+                continue;
+            }
+            char next = value.charAt(++i);
+            switch (next) {
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'u':
+                    if (i + 4 < value.length()) {
+                        sb.append((char) Integer.parseInt(value.substring(i + 1, i + 5), 16));
+                        i += 4;
+                        break;
+                    }
+                    sb.append(next);
+                    break;
+                default:
+                    sb.append(next);
+                    break;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 转为Java字符串字面量，非ASCII字符使用Unicode转义，与编译时的源码编码无关
+     */
+    static String javaString(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                default:
+                    if (c < 0x20 || c > 0x7E) {
+                        sb.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                    break;
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static boolean hasChildElements(Element element) {
+        NodeList children = element.getChildNodes();
+        for (int i = 0; i < children.getLength(); i++) {
+            if (children.item(i).getNodeType() == Node.ELEMENT_NODE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<File> xmlFiles(File dir) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return Collections.emptyList();
+        }
+        List<File> result = new ArrayList<>();
+        for (File file : files) {
+            if (file.isFile() && file.getName().endsWith(".xml")) {
+                result.add(file);
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    private static String resourceName(File file) {
+        String name = file.getName();
+        return name.substring(0, name.length() - ".xml".length());
+    }
+
+    private static Document parse(File file) throws IOException {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            return builder.parse(file);
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("Failed to parse " + file, e);
+        }
+    }
+
+    private static final class Setter {
+        final String method;
+        final Kind kind;
+
+        Setter(String method, Kind kind) {
+            this.method = method;
+            this.kind = kind;
+        }
+    }
+
+    private static final class Style {
+        /**
+         * 没有parent属性时为null
+         */
+        final String parent;
+        final Map<String, String> items;
+
+        Style(String parent, Map<String, String> items) {
+            this.parent = parent;
+            this.items = items;
+        }
+    }
+
+    private static final class UnsupportedException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedException(String message) {
+            super(message);
+        }
+    }
+}
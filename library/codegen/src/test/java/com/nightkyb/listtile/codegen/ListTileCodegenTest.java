@@ -0,0 +1,175 @@
+package com.nightkyb.listtile.codegen;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link ListTileCodegen}根据布局生成的代码和回退到inflate的布局
+ *
+ * @author nightkyb
+ */
+public class ListTileCodegenTest {
+    private static final String HEADER = "<com.nightkyb.listtile.ListTile"
+            + " xmlns:android=\"http://schemas.android.com/apk/res/android\""
+            + " xmlns:app=\"http://schemas.android.com/apk/res-auto\"\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File res;
+
+    @Before
+    public void setUp() throws IOException {
+        res = folder.newFolder("res");
+        write("values/styles.xml", "<resources>\n"
+                + "    <style name=\"ListTileStyle\">\n"
+                + "        <item name=\"android:paddingStart\">16dp</item>\n"
+                + "        <item name=\"android:paddingEnd\">16dp</item>\n"
+                + "        <item name=\"lt_leading_size\">24dp</item>\n"
+                + "    </style>\n"
+                + "    <style name=\"Row\" parent=\"ListTileStyle\">\n"
+                + "        <item name=\"android:background\">?selectableItemBackground</item>\n"
+                + "    </style>\n"
+                + "    <style name=\"Row.Dense\">\n"
+                + "        <item name=\"android:padding\">4dp</item>\n"
+                + "    </style>\n"
+                + "</resources>\n");
+    }
+
+    @Test
+    public void generatesBuilderCallsAndViewAttributes() throws IOException {
+        write("layout/item_contact.xml", HEADER
+                + "    style=\"@style/Row.Dense\"\n"
+                + "    android:layout_width=\"match_parent\"\n"
+                + "    android:layout_height=\"wrap_content\"\n"
+                + "    app:lt_leading=\"@drawable/ic_person\"\n"
+                + "    app:lt_leading_color=\"#f00\"\n"
+                + "    app:lt_title=\"\\&quot;世界\\&quot;\"\n"
+                + "    app:lt_subtitle=\"@string/phone\"\n"
+                + "    app:lt_extra=\"@drawable/ic_star\"\n"
+                + "    app:lt_extra_type=\"image\"\n"
+                + "    app:lt_overflow_policy=\"keep_title\" />\n");
+
+        ListTileCodegen codegen = codegen();
+        String source = codegen.generateSource();
+
+        assertTrue(codegen.getWarnings().isEmpty());
+        assertTrue(source, source.contains("if (layoutRes == R.layout.item_contact) {\n"
+                + "            return itemContact(context);\n"));
+        assertTrue(source, source.contains("new ListTileStyle.Builder(context, R.style.Row_Dense)\n"
+                + "                .extraImage(R.drawable.ic_star)\n"
+                + "                .leading(R.drawable.ic_person)\n"
+                + "                .leadingColor(0xFFFF0000)\n"
+                + "                .overflowPolicy(ListTile.OverflowPolicy.KEEP_TITLE)\n"
+                + "                .subtitle(context.getText(R.string.phone))\n"
+                + "                .title(\"\\\"\\u4e16\\u754c\\\"\")\n"
+                + "                .build();\n"));
+        // Row.Dense的padding覆盖ListTileStyle的paddingStart/paddingEnd，背景来自隐式父样式Row
+        assertTrue(source, source.contains("tile.setPaddingRelative(\n"
+                + "                px(context, 4.0f, TypedValue.COMPLEX_UNIT_DIP),\n"
+                + "                px(context, 4.0f, TypedValue.COMPLEX_UNIT_DIP),\n"
+                + "                px(context, 4.0f, TypedValue.COMPLEX_UNIT_DIP),\n"
+                + "                px(context, 4.0f, TypedValue.COMPLEX_UNIT_DIP));\n"));
+        assertTrue(source, source.contains(
+                "tile.setBackgroundResource(resolveResourceId(context, R.attr.selectableItemBackground));\n"));
+    }
+
+    @Test
+    public void usesDefaultStyleWithoutStyleAttribute() throws IOException {
+        write("layout/item_plain.xml", HEADER
+                + "    android:layout_width=\"match_parent\"\n"
+                + "    android:layout_height=\"48dp\"\n"
+                + "    app:lt_extra=\"3 items\" />\n");
+
+        String source = codegen().generateSource();
+
+        assertTrue(source, source.contains("new ListTileStyle.Builder(context)\n"
+                + "                .extra(\"3 items\")\n"));
+        assertTrue(source, source.contains("tile.setPaddingRelative(\n"
+                + "                px(context, 16.0f, TypedValue.COMPLEX_UNIT_DIP),\n"
+                + "                0,\n"));
+        assertTrue(source, source.contains("new ViewGroup.MarginLayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, "
+                + "px(context, 48.0f, TypedValue.COMPLEX_UNIT_DIP));\n"));
+    }
+
+    @Test
+    public void unsupportedLayoutsFallBackToInflate() throws IOException {
+        write("layout/item_alpha.xml", HEADER
+                + "    android:layout_width=\"match_parent\"\n"
+                + "    android:layout_height=\"wrap_content\"\n"
+                + "    android:alpha=\"0.5\" />\n");
+        write("layout/item_land.xml", HEADER
+                + "    android:layout_width=\"match_parent\"\n"
+                + "    android:layout_height=\"wrap_content\" />\n");
+        write("layout-land/item_land.xml", HEADER
+                + "    android:layout_width=\"match_parent\"\n"
+                + "    android:layout_height=\"wrap_content\" />\n");
+        write("layout/item_type.xml", HEADER
+                + "    android:layout_width=\"match_parent\"\n"
+                + "    android:layout_height=\"wrap_content\"\n"
+                + "    app:lt_extra_type=\"text\" />\n");
+        write("layout/activity_main.xml", "<FrameLayout"
+                + " xmlns:android=\"http://schemas.android.com/apk/res/android\""
+                + " android:layout_width=\"match_parent\" android:layout_height=\"match_parent\" />\n");
+
+        ListTileCodegen codegen = codegen();
+        String source = codegen.generateSource();
+
+        List<String> warnings = codegen.getWarnings();
+        assertEquals(warnings.toString(), 3, warnings.size());
+        assertTrue(warnings.get(0), warnings.get(0).startsWith("R.layout.item_alpha "));
+        assertTrue(warnings.get(1), warnings.get(1).startsWith("R.layout.item_land "));
+        assertTrue(warnings.get(2), warnings.get(2).startsWith("R.layout.item_type "));
+        assertFalse(source, source.contains("R.layout."));
+    }
+
+    @Test
+    public void nestedListTilesAreReported() throws IOException {
+        write("layout/activity_settings.xml", "<LinearLayout"
+                + " xmlns:android=\"http://schemas.android.com/apk/res/android\""
+                + " xmlns:app=\"http://schemas.android.com/apk/res-auto\""
+                + " android:layout_width=\"match_parent\" android:layout_height=\"match_parent\">\n"
+                + "    <com.nightkyb.listtile.ListTile\n"
+                + "        android:layout_width=\"match_parent\"\n"
+                + "        android:layout_height=\"wrap_content\"\n"
+                + "        app:lt_title=\"版本\" />\n"
+                + "</LinearLayout>\n");
+
+        ListTileCodegen codegen = codegen();
+        String source = codegen.generateSource();
+
+        List<String> warnings = codegen.getWarnings();
+        assertEquals(warnings.toString(), 1, warnings.size());
+        assertTrue(warnings.get(0), warnings.get(0).startsWith("R.layout.activity_settings "));
+        assertFalse(source, source.contains("R.layout."));
+    }
+
+    @Test
+    public void methodName() {
+        assertEquals("itemSettingsRow", ListTileCodegen.methodName("item_settings_row"));
+        assertEquals("row2", ListTileCodegen.methodName("_row__2"));
+    }
+
+    private ListTileCodegen codegen() {
+        return new ListTileCodegen("com.example", Collections.singletonList(res));
+    }
+
+    private void write(String path, String content) throws IOException {
+        File file = new File(res, path);
+        assertTrue(file.getParentFile().isDirectory() || file.getParentFile().mkdirs());
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
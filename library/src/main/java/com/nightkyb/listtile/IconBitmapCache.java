@@ -0,0 +1,236 @@
+package com.nightkyb.listtile;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.VectorDrawable;
+import android.util.LruCache;
+import android.util.SparseBooleanArray;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.DrawableRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.Px;
+import androidx.core.content.ContextCompat;
+import androidx.core.graphics.drawable.DrawableCompat;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * 进程内共享的矢量图标位图缓存，以(Drawable资源, 尺寸, 着色Color, 屏幕密度, 主题)为键保存栅格化后的{@link Bitmap}。
+ * <p>
+ * 开启{@code lt_rasterize_icons}后，ListTile中的{@link VectorDrawable}图标只在第一次使用时按槽位尺寸绘制一次，
+ * 之后所有ListTile共享同一个位图，绘制时只需要一次drawBitmap，不再逐条路径绘制。
+ * 栅格化与ImageView的CENTER_CROP一致。非矢量的资源不会进入缓存。
+ * <p>
+ * 矢量图中的{@code ?attr}（例如fillColor）在栅格化时按当前主题解析，因此不同主题的位图分开缓存。
+ * 键中只保存主题的编号，主题本身作为弱引用键，不会因为缓存而无法回收；已回收主题的位图随LRU淘汰。
+ * <p>
+ * 缓存按位图占用的字节数淘汰，配置变化时随{@link ListTileStyleCache#clear()}一起清空。
+ *
+ * @author nightkyb
+ */
+public final class IconBitmapCache {
+    private static final int MAX_SIZE_BYTES = 4 * 1024 * 1024;
+
+    private static final LruCache<Key, Bitmap> CACHE = new LruCache<Key, Bitmap>(MAX_SIZE_BYTES) {
+        @Override
+        protected int sizeOf(Key key, Bitmap value) {
+            return value.getByteCount();
+        }
+    };
+    /**
+     * 已知不是矢量图的资源，不再重复加载判断
+     */
+    private static final SparseBooleanArray NOT_VECTOR = new SparseBooleanArray();
+    private static final Key LOOKUP_KEY = new Key();
+    /**
+     * 主题的编号，主题被回收后编号不会复用
+     */
+    private static final Map<Resources.Theme, Integer> THEME_IDS = new WeakHashMap<>();
+    private static int nextThemeId;
+
+    private IconBitmapCache() {
+    }
+
+    /**
+     * 缓存命中次数
+     */
+    public static int getHitCount() {
+        return CACHE.hitCount();
+    }
+
+    /**
+     * 缓存未命中次数
+     */
+    public static int getMissCount() {
+        return CACHE.missCount();
+    }
+
+    /**
+     * 当前缓存的位图占用的字节数
+     */
+    public static int size() {
+        return CACHE.size();
+    }
+
+    /**
+     * 清空所有缓存的位图
+     */
+    public static void clear() {
+        CACHE.evictAll();
+        synchronized (NOT_VECTOR) {
+            NOT_VECTOR.clear();
+        }
+    }
+
+    /**
+     * 获取不着色的图标位图
+     *
+     * @return 资源不是矢量图时返回null
+     */
+    @Nullable
+    static Bitmap get(@NonNull Context context, @DrawableRes int resId, @Px int size) {
+        return get(context, resId, size, false, 0);
+    }
+
+    /**
+     * 获取着色后的图标位图
+     *
+     * @return 资源不是矢量图时返回null
+     */
+    @Nullable
+    static Bitmap get(@NonNull Context context, @DrawableRes int resId, @Px int size, @ColorInt int color) {
+        return get(context, resId, size, true, color);
+    }
+
+    @Nullable
+    private static Bitmap get(@NonNull Context context, @DrawableRes int resId, @Px int size, boolean tinted, @ColorInt int color) {
+        if (resId == 0 || size <= 0) {
+            return null;
+        }
+        synchronized (NOT_VECTOR) {
+            if (NOT_VECTOR.get(resId)) {
+                return null;
+            }
+        }
+
+        ListTileStyleCache.registerCallbacks(context);
+        final int density = context.getResources().getDisplayMetrics().densityDpi;
+        final int themeId = themeId(context.getTheme());
+        Bitmap bitmap;
+        synchronized (LOOKUP_KEY) {
+            LOOKUP_KEY.set(resId, size, tinted, color, density, themeId);
+            bitmap = CACHE.get(LOOKUP_KEY);
+        }
+        if (bitmap != null) {
+            return bitmap;
+        }
+
+        Drawable drawable = ContextCompat.getDrawable(context, resId);
+        if (!(drawable instanceof VectorDrawable)) {
+            synchronized (NOT_VECTOR) {
+                NOT_VECTOR.put(resId, true);
+            }
+            return null;
+        }
+
+        if (tinted) {
+            drawable = DrawableCompat.wrap(drawable.mutate());
+            DrawableCompat.setTint(drawable, color);
+        }
+        bitmap = rasterize(drawable, size);
+
+        Key key = new Key();
+        key.set(resId, size, tinted, color, density, themeId);
+        CACHE.put(key, bitmap);
+        return bitmap;
+    }
+
+    private static int themeId(@NonNull Resources.Theme theme) {
+        synchronized (THEME_IDS) {
+            Integer id = THEME_IDS.get(theme);
+            if (id == null) {
+                id = nextThemeId++;
+                THEME_IDS.put(theme, id);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * 按CENTER_CROP绘制到size×size的位图
+     */
+    @NonNull
+    private static Bitmap rasterize(@NonNull Drawable drawable, @Px int size) {
+        int width = drawable.getIntrinsicWidth();
+        int height = drawable.getIntrinsicHeight();
+        if (width <= 0 || height <= 0) {
+            width = size;
+            height = size;
+        }
+        float scale = Math.max((float) size / width, (float) size / height);
+        int scaledWidth = Math.round(width * scale);
+        int scaledHeight = Math.round(height * scale);
+        int left = (size - scaledWidth) / 2;
+        int top = (size - scaledHeight) / 2;
+
+        Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        drawable.setBounds(left, top, left + scaledWidth, top + scaledHeight);
+        drawable.draw(new Canvas(bitmap));
+        return bitmap;
+    }
+
+    private static final class Key {
+        @DrawableRes
+        private int resId;
+        @Px
+        private int size;
+        private boolean tinted;
+        @ColorInt
+        private int color;
+        private int density;
+        private int themeId;
+
+        void set(@DrawableRes int resId, @Px int size, boolean tinted, @ColorInt int color, int density, int themeId) {
+            this.resId = resId;
+            this.size = size;
+            this.tinted = tinted;
+            this.color = color;
+            this.density = density;
+            this.themeId = themeId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key that = (Key) o;
+            return resId == that.resId
+                    && size == that.size
+                    && tinted == that.tinted
+                    && color == that.color
+                    && density == that.density
+                    && themeId == that.themeId;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = resId;
+            result = 31 * result + size;
+            result = 31 * result + (tinted ? 1 : 0);
+            result = 31 * result + color;
+            result = 31 * result + density;
+            result = 31 * result + themeId;
+            return result;
+        }
+    }
+}
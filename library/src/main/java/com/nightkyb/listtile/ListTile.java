@@ -2,13 +2,21 @@ package com.nightkyb.listtile;
 
 import android.content.Context;
 import android.content.res.ColorStateList;
-import android.content.res.TypedArray;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.ColorDrawable;
 import android.graphics.drawable.Drawable;
+import android.net.Uri;
+import android.text.Layout;
 import android.text.TextUtils;
 import android.util.AttributeSet;
 import android.view.Gravity;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewParent;
 import android.widget.ImageView;
 import android.widget.ImageView.ScaleType;
 import android.widget.TextView;
@@ -18,14 +26,18 @@ import androidx.annotation.ColorRes;
 import androidx.annotation.DrawableRes;
 import androidx.annotation.IntDef;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.Px;
 import androidx.annotation.StringRes;
+import androidx.annotation.StyleRes;
 import androidx.core.content.ContextCompat;
 import androidx.core.graphics.drawable.DrawableCompat;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
 
+import java.io.File;
 import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
-import java.util.Objects;
 
 import static java.lang.annotation.ElementType.FIELD;
 import static java.lang.annotation.ElementType.METHOD;
@@ -35,11 +47,24 @@ import static java.lang.annotation.RetentionPolicy.SOURCE;
 /**
  * 轻量级的列表项组件，包含必选的title文本，可选的heading图片，subtitle文本，extra文本/图片以及trailing图片。
  * title、subtitle限制单行，extra允许多行。
+ * <p>
+ * 通过{@code lt_flat}属性或{@link #ListTile(Context, AttributeSet, int, boolean)}可开启flat模式：
+ * 不再创建子View，而是由ListTile自身持有{@link Layout}/{@link Drawable}完成测量、布局和绘制，
+ * 以减少长列表中的View层级和内存占用。flat模式下各个setter保持可用，但获取子View的getter会抛出异常。
+ * <p>
+ * 通过{@code lt_stable_size}属性或{@link #setStableSize(boolean)}可开启固定尺寸模式：内容变化时ListTile的尺寸保持不变，
+ * 只在当前范围内重新测量和布局各个槽位，不会向父布局请求重新布局。
+ * <p>
+ * 通过{@code lt_display_list_cache}属性或{@link #setDisplayListCacheEnabled(boolean)}可开启显示列表缓存：
+ * 内容只录制一次，之后的重绘（例如背景的水波纹动画）直接回放录制结果，内容或尺寸变化时重新录制。
+ * <p>
+ * 尚未attach到窗口的ListTile可以在后台线程创建、设置内容，并通过{@link #renderToBitmap(int)}绘制为位图，
+ * 同一时间只能由一个线程访问，attach之后只能在主线程访问。预先创建可以使用{@link ListTilePool}。
  *
  * @author nightkyb created at 2019/7/22 11:53
  */
 public class ListTile extends ViewGroup {
-    private static final int DEF_STYLE_RES = R.style.ListTileStyle;
+    static final int DEF_STYLE_RES = R.style.ListTileStyle;
 
     private ImageView leading;
     private ImageView trailing;
@@ -48,6 +73,102 @@ public class ListTile extends ViewGroup {
     private View extra;
     @ExtraType
     private int extraType;
+    /**
+     * 解析后的样式，按需创建槽位时使用其中的文本外观、颜色和尺寸
+     */
+    private ListTileStyle style;
+
+    private boolean flat;
+    private boolean stableSize;
+    /**
+     * 通过资源设置的矢量图标是否从{@link IconBitmapCache}获取栅格化的位图
+     */
+    private boolean rasterizeIcons;
+    /**
+     * 显示列表缓存，未开启时为null
+     */
+    @Nullable
+    private TileDisplayList displayList;
+    // flat模式下直接绘制的内容
+    private Drawable leadingDrawable;
+    private Drawable trailingDrawable;
+    private Drawable extraDrawable;
+    private TextSlot titleSlot;
+    private TextSlot subtitleSlot;
+    private TextSlot extraSlot;
+    private ColorStateList leadingTint;
+    private ColorStateList trailingTint;
+    // 当前着色的颜色资源，重新绑定相同的颜色时跳过
+    @ColorRes
+    private int leadingTintRes;
+    @ColorRes
+    private int trailingTintRes;
+    // 图片槽位当前内容的来源，重新绑定相同的图片时跳过
+    private final ImageSource leadingSource = new ImageSource();
+    private final ImageSource trailingSource = new ImageSource();
+    private final ImageSource extraSource = new ImageSource();
+    private final Rect leadingBounds = new Rect();
+    private final Rect trailingBounds = new Rect();
+    private final Rect extraBounds = new Rect();
+
+    /**
+     * 内容版本号，任何可能影响测量结果的改动都会使其递增，用于判断测量缓存是否有效
+     */
+    private int contentVersion;
+    private final MeasureCache measureCache = new MeasureCache();
+    private boolean hasMeasureSpec;
+    private int lastWidthMeasureSpec;
+    private int lastHeightMeasureSpec;
+
+    private final TileLayoutEngine engine = new TileLayoutEngine();
+
+    @Nullable
+    private ListTileAlignmentGroup alignmentGroup;
+    // 上报给对齐组的trailing和extra宽度
+    @Px
+    private int alignedTrailingWidth = ListTileAlignmentGroup.NO_WIDTH;
+    @Px
+    private int alignedExtraWidth = ListTileAlignmentGroup.NO_WIDTH;
+
+    private final Editor editor = new Editor();
+    /**
+     * 批量修改的嵌套层数，大于0时延迟所有重新布局请求
+     */
+    private int editDepth;
+    private boolean pendingUpdate;
+
+    // 正在进行的图片加载请求，槽位重新绑定时取消
+    @Nullable
+    private ListTileImageLoader.Request leadingRequest;
+    @Nullable
+    private ListTileImageLoader.Request extraRequest;
+
+    /**
+     * 当前post的refresh是否计入了{@link ListTileMetrics}
+     */
+    private boolean refreshCounted;
+    private final Runnable refreshRunnable = new Runnable() {
+        @Override
+        public void run() {
+            if (refreshCounted) {
+                refreshCounted = false;
+                ListTileMetrics.onRefreshDone();
+            }
+            if (stableSize) {
+                updateLayout();
+            } else {
+                requestLayout();
+                invalidate();
+            }
+        }
+    };
+
+    @Px
+    private int leadingSize;
+    @Px
+    private int trailingSize;
+    @Px
+    private int extraSize;
 
     @Px
     private int leadingRightMargin;
@@ -57,6 +178,12 @@ public class ListTile extends ViewGroup {
     private int subtitleTopMargin;
     @Px
     private int extraLeftMargin;
+    @OverflowPolicy
+    private int overflowPolicy;
+    @Px
+    private int titleMinWidth;
+    @Px
+    private int extraMinWidth;
 
     @Retention(SOURCE)
     @Target({FIELD, PARAMETER, METHOD})
@@ -66,8 +193,33 @@ public class ListTile extends ViewGroup {
         int IMAGE = 2;
     }
 
+    /**
+     * 内容宽度超出时title/subtitle与extra分配宽度的策略，与{@link TileLayoutEngine}中的POLICY_*对应
+     */
+    @Retention(SOURCE)
+    @Target({FIELD, PARAMETER, METHOD})
+    @IntDef({OverflowPolicy.WIDER_SHRINKS, OverflowPolicy.KEEP_TITLE, OverflowPolicy.KEEP_EXTRA, OverflowPolicy.PROPORTIONAL})
+    public @interface OverflowPolicy {
+        /**
+         * 较宽的一方先裁剪，默认策略
+         */
+        int WIDER_SHRINKS = TileLayoutEngine.POLICY_WIDER_SHRINKS;
+        /**
+         * 先裁剪extra
+         */
+        int KEEP_TITLE = TileLayoutEngine.POLICY_KEEP_TITLE;
+        /**
+         * 先裁剪title和subtitle
+         */
+        int KEEP_EXTRA = TileLayoutEngine.POLICY_KEEP_EXTRA;
+        /**
+         * 两者按比例裁剪
+         */
+        int PROPORTIONAL = TileLayoutEngine.POLICY_PROPORTIONAL;
+    }
+
     public ListTile(Context context) {
-        this(context, null);
+        this(context, (AttributeSet) null);
     }
 
     public ListTile(Context context, AttributeSet attrs) {
@@ -76,410 +228,1769 @@ public class ListTile extends ViewGroup {
 
     public ListTile(Context context, AttributeSet attrs, int defStyleAttr) {
         super(context, attrs, defStyleAttr, DEF_STYLE_RES);
+        init(context, attrs, defStyleAttr, null);
+    }
 
-        // 获取自定义属性
-        final TypedArray ta = context.obtainStyledAttributes(attrs, R.styleable.ListTile, defStyleAttr, DEF_STYLE_RES);
-
-        if (ta.hasValue(R.styleable.ListTile_lt_leading)) {
-            Drawable leadingDrawable = ta.getDrawable(R.styleable.ListTile_lt_leading);
+    /**
+     * @param flat 是否使用flat模式，会覆盖{@code lt_flat}属性
+     */
+    public ListTile(Context context, AttributeSet attrs, int defStyleAttr, boolean flat) {
+        super(context, attrs, defStyleAttr, DEF_STYLE_RES);
+        init(context, attrs, defStyleAttr, flat);
+    }
 
-            if (leadingDrawable != null) {
-                if (ta.hasValue(R.styleable.ListTile_lt_leading_color)) {
-                    int leadingColor = ta.getColor(R.styleable.ListTile_lt_leading_color, 0);
-                    leadingDrawable = tint(leadingDrawable, leadingColor);
-                }
+    /**
+     * 使用已经解析的样式创建，不再解析属性，padding、背景等View本身的属性需要另外设置
+     *
+     * @param style 通过{@link ListTileStyle#obtain(Context, int)}获取
+     */
+    public ListTile(@NonNull Context context, @NonNull ListTileStyle style) {
+        super(context);
+        final long start = ListTileMetrics.begin(ListTileMetrics.CONSTRUCT);
+        try {
+            initSlots(context, style, null);
+        } finally {
+            ListTileMetrics.end(ListTileMetrics.CONSTRUCT, start);
+        }
+    }
 
-                int leadingSize = ta.getDimensionPixelSize(R.styleable.ListTile_lt_leading_size, 0);
-                leadingRightMargin = ta.getDimensionPixelSize(R.styleable.ListTile_lt_leading_right_margin, 0);
+    private void init(Context context, AttributeSet attrs, int defStyleAttr, @Nullable Boolean flatMode) {
+        final long start = ListTileMetrics.begin(ListTileMetrics.CONSTRUCT);
+        try {
+            // 获取自定义属性，相同主题和属性的ListTile共享同一份解析结果
+            initSlots(context, ListTileStyle.obtain(context, attrs, defStyleAttr, DEF_STYLE_RES), flatMode);
+        } finally {
+            ListTileMetrics.end(ListTileMetrics.CONSTRUCT, start);
+        }
+    }
 
-                leading = new ImageView(context);
-                leading.setScaleType(ScaleType.CENTER_CROP);
-                leading.setImageDrawable(leadingDrawable);
-                leading.setLayoutParams(new LayoutParams(leadingSize, leadingSize));
+    private void initSlots(Context context, @NonNull ListTileStyle style, @Nullable Boolean flatMode) {
+        this.style = style;
+        final Resources res = getResources();
 
-                addView(leading);
-            }
+        flat = flatMode != null ? flatMode : style.flat;
+        stableSize = style.stableSize;
+        rasterizeIcons = style.rasterizeIcons;
+        if (style.displayListCache) {
+            displayList = TileDisplayList.create();
+        }
+        setWillNotDraw(!flat);
+
+        // 尺寸和间距始终使用样式中的值，只在对应槽位显示时生效，之后按需创建的槽位同样使用
+        leadingSize = style.leadingSize;
+        trailingSize = style.trailingSize;
+        extraSize = style.extraSize;
+        leadingRightMargin = style.leadingRightMargin;
+        trailingLeftMargin = style.trailingLeftMargin;
+        subtitleTopMargin = style.subtitleTopMargin;
+        extraLeftMargin = style.extraLeftMargin;
+        extraType = style.extraType;
+        titleMinWidth = style.titleMinWidth;
+        extraMinWidth = style.extraMinWidth;
+        engine.setMargins(leadingRightMargin, trailingLeftMargin, subtitleTopMargin, extraLeftMargin);
+        overflowPolicy = style.overflowPolicy;
+        engine.setOverflowPolicy(overflowPolicy);
+
+        if (style.leading != null) {
+            applyLeading(style.leading.newDrawable(res));
         }
 
-        if (ta.hasValue(R.styleable.ListTile_lt_trailing)) {
-            Drawable trailingDrawable = ta.getDrawable(R.styleable.ListTile_lt_trailing);
+        if (style.trailing != null) {
+            applyTrailing(style.trailing.newDrawable(res));
+        }
 
-            if (trailingDrawable != null) {
-                if (ta.hasValue(R.styleable.ListTile_lt_trailing_color)) {
-                    int trailingColor = ta.getColor(R.styleable.ListTile_lt_trailing_color, 0);
-                    trailingDrawable = tint(trailingDrawable, trailingColor);
-                }
+        if (flat) {
+            titleSlot = new TextSlot(context, style.titleTextAppearance, style.titleColor, 1, Layout.Alignment.ALIGN_NORMAL);
+        } else {
+            title = createSingleLineTextView(style.titleTextAppearance, style.titleColor);
+            addView(title);
+        }
+        applyTitle(style.title);
 
-                int trailingSize = ta.getDimensionPixelSize(R.styleable.ListTile_lt_trailing_size, 0);
-                trailingLeftMargin = ta.getDimensionPixelSize(R.styleable.ListTile_lt_trailing_left_margin, 0);
+        if (style.subtitle != null) {
+            applySubtitle(style.subtitle);
+        }
 
-                trailing = new ImageView(context);
-                trailing.setScaleType(ScaleType.CENTER_CROP);
-                trailing.setImageDrawable(trailingDrawable);
-                trailing.setLayoutParams(new LayoutParams(trailingSize, trailingSize));
+        if (style.extraText != null) {
+            applyExtraText(style.extraText);
+        } else if (style.extraImage != null) {
+            applyExtraImage(style.extraImage.newDrawable(res));
+        }
+    }
 
-                addView(trailing);
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        hasMeasureSpec = true;
+        lastWidthMeasureSpec = widthMeasureSpec;
+        lastHeightMeasureSpec = heightMeasureSpec;
+
+        // 父布局在同一帧内可能多次测量，内容和MeasureSpec都没有变化时直接使用缓存结果
+        final int version = contentVersion;
+        int index = measureCache.find(widthMeasureSpec, heightMeasureSpec, version);
+        if (index >= 0 && !measureCache.isCurrent(index)) {
+            if (flat) {
+                // flat模式的Layout只保留最近一次的测量结果，需要重新测量
+                index = -1;
+            } else {
+                replayChildMeasure(index);
+                measureCache.setCurrent(index);
             }
         }
+        if (index >= 0) {
+            ListTileMetrics.count(ListTileMetrics.MEASURE_CACHE_HIT);
+            setMeasuredDimension(measureCache.getMeasuredWidth(index), measureCache.getMeasuredHeight(index));
+            return;
+        }
 
-        if (ta.hasValue(R.styleable.ListTile_lt_title)) {
-            CharSequence titleText = ta.getText(R.styleable.ListTile_lt_title);
-
-            if (titleText != null) {
-                int titleTextAppearance = ta.getResourceId(R.styleable.ListTile_lt_title_textAppearance, 0);
-                int titleColor = ta.getColor(R.styleable.ListTile_lt_title_color, 0);
-
-                title = new TextView(context);
-                title.setText(titleText);
-                title.setTextAppearance(context, titleTextAppearance);
-                title.setTextColor(titleColor);
-                title.setLines(1);
-                title.setEllipsize(TextUtils.TruncateAt.END);
-                title.setGravity(Gravity.START);
-
-                addView(title);
+        final long start = ListTileMetrics.begin(ListTileMetrics.MEASURE);
+        try {
+            if (flat) {
+                onMeasureFlat(widthMeasureSpec, heightMeasureSpec);
             } else {
-                throw new IllegalArgumentException("Title must be a String!");
+                onMeasureChildren(widthMeasureSpec, heightMeasureSpec);
             }
-        } else {
-            throw new IllegalArgumentException("Title must be set!");
+
+            index = measureCache.put(widthMeasureSpec, heightMeasureSpec, version, getMeasuredWidth(), getMeasuredHeight());
+            if (!flat) {
+                saveChildMeasure(index, MeasureCache.SLOT_LEADING, leading);
+                saveChildMeasure(index, MeasureCache.SLOT_TRAILING, trailing);
+                saveChildMeasure(index, MeasureCache.SLOT_TITLE, title);
+                saveChildMeasure(index, MeasureCache.SLOT_SUBTITLE, subtitle);
+                saveChildMeasure(index, MeasureCache.SLOT_EXTRA, extra);
+            }
+        } finally {
+            ListTileMetrics.end(ListTileMetrics.MEASURE, start);
+        }
+    }
+
+    private void saveChildMeasure(int index, int slot, @Nullable View child) {
+        if (isVisible(child)) {
+            measureCache.setSlotSize(index, slot, child.getMeasuredWidth(), child.getMeasuredHeight());
         }
+    }
 
-        if (ta.hasValue(R.styleable.ListTile_lt_subtitle)) {
-            CharSequence subtitleText = ta.getText(R.styleable.ListTile_lt_subtitle);
+    /**
+     * 使用缓存的尺寸以EXACTLY模式重新测量子View，跳过溢出计算
+     */
+    private void replayChildMeasure(int index) {
+        replayChildMeasure(index, MeasureCache.SLOT_LEADING, leading);
+        replayChildMeasure(index, MeasureCache.SLOT_TRAILING, trailing);
+        replayChildMeasure(index, MeasureCache.SLOT_TITLE, title);
+        replayChildMeasure(index, MeasureCache.SLOT_SUBTITLE, subtitle);
+        replayChildMeasure(index, MeasureCache.SLOT_EXTRA, extra);
+    }
 
-            if (subtitleText != null) {
-                int subtitleTextAppearance = ta.getResourceId(R.styleable.ListTile_lt_subtitle_textAppearance, 0);
-                int subtitleColor = ta.getColor(R.styleable.ListTile_lt_subtitle_color, 0);
-                subtitleTopMargin = ta.getDimensionPixelSize(R.styleable.ListTile_lt_subtitle_top_margin, 0);
+    private void replayChildMeasure(int index, int slot, @Nullable View child) {
+        if (isVisible(child)) {
+            child.measure(MeasureSpec.makeMeasureSpec(measureCache.getSlotWidth(index, slot), MeasureSpec.EXACTLY),
+                    MeasureSpec.makeMeasureSpec(measureCache.getSlotHeight(index, slot), MeasureSpec.EXACTLY));
+        }
+    }
 
-                subtitle = new TextView(context);
-                subtitle.setText(subtitleText);
-                subtitle.setTextAppearance(context, subtitleTextAppearance);
-                subtitle.setTextColor(subtitleColor);
-                subtitle.setLines(1);
-                subtitle.setEllipsize(TextUtils.TruncateAt.END);
-                subtitle.setGravity(Gravity.START);
+    private void onMeasureChildren(int widthMeasureSpec, int heightMeasureSpec) {
+        final int widthMode = MeasureSpec.getMode(widthMeasureSpec);
+        final int heightMode = MeasureSpec.getMode(heightMeasureSpec);
+        final int widthSize = MeasureSpec.getSize(widthMeasureSpec);
+        final int heightSize = MeasureSpec.getSize(heightMeasureSpec);
 
-                addView(subtitle);
+        measureVisibleChild(leading, widthMeasureSpec, heightMeasureSpec);
+        measureVisibleChild(trailing, widthMeasureSpec, heightMeasureSpec);
+        measureVisibleChild(title, widthMeasureSpec, heightMeasureSpec);
+        measureVisibleChild(subtitle, widthMeasureSpec, heightMeasureSpec);
+        measureVisibleChild(extra, widthMeasureSpec, heightMeasureSpec);
+        loadSlotSizes();
+        updateAlignment();
+
+        int width = engine.measureWidth();
+
+        // title/subtitle + extra超过最大可用空间时，按照溢出策略分配宽度后在本次测量中重新测量，不修改LayoutParams
+        if (resolveOverflow(widthSize)) {
+            if (engine.isTitleShrunk()) {
+                remeasureChild(title, engine.getTitleWidth(), heightMeasureSpec);
+                if (isVisible(subtitle)) {
+                    remeasureChild(subtitle, engine.getTitleWidth(), heightMeasureSpec);
+                }
+            }
+            if (engine.isExtraShrunk()) {
+                remeasureChild(extra, engine.getExtraWidth(), heightMeasureSpec);
             }
+            loadSlotSizes();
         }
 
-        if (ta.hasValue(R.styleable.ListTile_lt_extra)) {
-            extraType = ta.getInt(R.styleable.ListTile_lt_extra_type, ExtraType.TEXT); // 默认text类型
+        int height = engine.measureHeight();
 
-            if (extraType == ExtraType.TEXT) {
-                CharSequence extraText = ta.getText(R.styleable.ListTile_lt_extra);
+        setMeasuredDimension(widthMode == MeasureSpec.EXACTLY ? widthSize : width,
+                heightMode == MeasureSpec.EXACTLY ? heightSize : height);
+    }
 
-                if (extraText != null) {
-                    int extraTextAppearance = ta.getResourceId(R.styleable.ListTile_lt_extra_textAppearance, 0);
-                    int extraColor = ta.getColor(R.styleable.ListTile_lt_extra_color, 0);
-                    extraLeftMargin = ta.getDimensionPixelSize(R.styleable.ListTile_lt_extra_left_margin, 0);
+    /**
+     * 以分配的宽度为上限重新测量子View，多行的extra会按新的宽度换行
+     */
+    private void remeasureChild(@NonNull View child, @Px int maxWidth, int heightMeasureSpec) {
+        final int childHeightMeasureSpec = getChildMeasureSpec(heightMeasureSpec,
+                getPaddingTop() + getPaddingBottom(), child.getLayoutParams().height);
+        child.measure(MeasureSpec.makeMeasureSpec(Math.max(0, maxWidth), MeasureSpec.AT_MOST), childHeightMeasureSpec);
+    }
 
-                    TextView extraTextView = new TextView(context);
-                    extraTextView.setText(extraText);
-                    extraTextView.setTextAppearance(context, extraTextAppearance);
-                    extraTextView.setTextColor(extraColor);
-                    extraTextView.setGravity(Gravity.END);
+    /**
+     * 计算溢出时的宽度分配，extra为图片时不裁剪
+     */
+    private boolean resolveOverflow(int widthSize) {
+        engine.setMinWidths(titleMinWidth, extraType == ExtraType.IMAGE ? Integer.MAX_VALUE : extraMinWidth);
+        return engine.resolveOverflow(widthSize);
+    }
 
-                    extra = extraTextView;
+    private void measureVisibleChild(@Nullable View child, int widthMeasureSpec, int heightMeasureSpec) {
+        if (isVisible(child)) {
+            measureChild(child, widthMeasureSpec, heightMeasureSpec);
+        }
+    }
 
-                    addView(extra);
-                }
+    /**
+     * 将各个槽位当前的尺寸同步到{@link TileLayoutEngine}
+     */
+    private void loadSlotSizes() {
+        engine.setPadding(getPaddingLeft(), getPaddingTop(), getPaddingRight(), getPaddingBottom());
+
+        if (flat) {
+            loadSlotSize(TileLayoutEngine.LEADING, leadingDrawable != null, leadingSize);
+            loadSlotSize(TileLayoutEngine.TRAILING, trailingDrawable != null, trailingSize);
+            loadSlotSize(TileLayoutEngine.TITLE, titleSlot);
+            loadSlotSize(TileLayoutEngine.SUBTITLE, subtitleSlot);
+            if (isVisible(extraSlot)) {
+                loadSlotSize(TileLayoutEngine.EXTRA, extraSlot);
             } else {
-                Drawable extraDrawable = ta.getDrawable(R.styleable.ListTile_lt_extra);
-
-                if (extraDrawable != null) {
-                    if (ta.hasValue(R.styleable.ListTile_lt_extra_color)) {
-                        int extraColor = ta.getColor(R.styleable.ListTile_lt_extra_color, 0);
-                        extraDrawable = tint(extraDrawable, extraColor);
-                    }
+                loadSlotSize(TileLayoutEngine.EXTRA, extraDrawable != null, extraSize);
+            }
+        } else {
+            loadSlotSize(TileLayoutEngine.LEADING, leading);
+            loadSlotSize(TileLayoutEngine.TRAILING, trailing);
+            loadSlotSize(TileLayoutEngine.TITLE, title);
+            loadSlotSize(TileLayoutEngine.SUBTITLE, subtitle);
+            loadSlotSize(TileLayoutEngine.EXTRA, extra);
+        }
+    }
 
-                    int extraSize = ta.getDimensionPixelSize(R.styleable.ListTile_lt_extra_size, 0);
-                    extraLeftMargin = ta.getDimensionPixelSize(R.styleable.ListTile_lt_extra_left_margin, 0);
+    private void loadSlotSize(int slot, @Nullable View child) {
+        if (isVisible(child)) {
+            engine.setSlot(slot, child.getMeasuredWidth(), child.getMeasuredHeight());
+        } else {
+            engine.clearSlot(slot);
+        }
+    }
 
-                    ImageView extraImageView = new ImageView(context);
-                    extraImageView.setScaleType(ScaleType.CENTER_CROP);
-                    extraImageView.setImageDrawable(extraDrawable);
-                    extraImageView.setLayoutParams(new LayoutParams(extraSize, extraSize));
+    private void loadSlotSize(int slot, @Nullable TextSlot textSlot) {
+        if (isVisible(textSlot)) {
+            engine.setSlot(slot, textSlot.getWidth(), textSlot.getHeight());
+        } else {
+            engine.clearSlot(slot);
+        }
+    }
 
-                    extra = extraImageView;
+    private void loadSlotSize(int slot, boolean visible, @Px int size) {
+        if (visible) {
+            engine.setSlot(slot, size, size);
+        } else {
+            engine.clearSlot(slot);
+        }
+    }
 
-                    addView(extra);
-                }
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        final long start = ListTileMetrics.begin(ListTileMetrics.LAYOUT);
+        try {
+            // 测量结果可能来自缓存，按子View当前的尺寸重新计算位置
+            loadSlotSizes();
+            engine.layout(r - l, b - t);
+
+            if (flat) {
+                onLayoutFlat();
+            } else {
+                layoutChild(TileLayoutEngine.LEADING, leading);
+                layoutChild(TileLayoutEngine.TITLE, title);
+                layoutChild(TileLayoutEngine.SUBTITLE, subtitle);
+                layoutChild(TileLayoutEngine.TRAILING, trailing);
+                layoutChild(TileLayoutEngine.EXTRA, extra);
             }
+        } finally {
+            ListTileMetrics.end(ListTileMetrics.LAYOUT, start);
         }
+    }
 
-        ta.recycle();
+    private void layoutChild(int slot, @Nullable View child) {
+        if (isVisible(child)) {
+            int childLeft = engine.getLeft(slot);
+            int childTop = engine.getTop(slot);
+            child.layout(childLeft, childTop, childLeft + child.getMeasuredWidth(), childTop + child.getMeasuredHeight());
+        }
     }
 
-    @Override
-    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+    /**
+     * flat模式下的测量，规则与子View模式一致：图片使用固定尺寸，文本按可用宽度测量，超出时裁剪title或extra。
+     */
+    private void onMeasureFlat(int widthMeasureSpec, int heightMeasureSpec) {
         final int widthMode = MeasureSpec.getMode(widthMeasureSpec);
         final int heightMode = MeasureSpec.getMode(heightMeasureSpec);
         final int widthSize = MeasureSpec.getSize(widthMeasureSpec);
         final int heightSize = MeasureSpec.getSize(heightMeasureSpec);
 
-        int width = 0;
-        int height = 0;
+        // 与measureChild()一致，文本的最大可用宽度为去掉padding后的宽度
+        final int availableWidth = widthMode == MeasureSpec.UNSPECIFIED
+                ? Integer.MAX_VALUE : Math.max(0, widthSize - getPaddingLeft() - getPaddingRight());
 
-        if (leading != null) {
-            measureChild(leading, widthMeasureSpec, heightMeasureSpec);
-            int leadingMeasuredWidth = leading.getMeasuredWidth();
-            int leadingMeasuredHeight = leading.getMeasuredHeight();
-
-            width += leadingMeasuredWidth + leadingRightMargin;
-            height = Math.max(height, leadingMeasuredHeight);
+        titleSlot.measure(availableWidth);
+        if (isVisible(subtitleSlot)) {
+            subtitleSlot.measure(availableWidth);
+        }
+        if (isVisible(extraSlot)) {
+            extraSlot.measure(availableWidth);
         }
+        loadSlotSizes();
+        updateAlignment();
 
-        if (trailing != null) {
-            measureChild(trailing, widthMeasureSpec, heightMeasureSpec);
-            int trailingMeasuredWidth = trailing.getMeasuredWidth();
-            int trailingMeasuredHeight = trailing.getMeasuredHeight();
+        int width = engine.measureWidth();
 
-            width += trailingMeasuredWidth + trailingLeftMargin;
-            height = Math.max(height, trailingMeasuredHeight);
+        // 超出最大可用空间时与子View模式相同的宽度分配规则，按分配的宽度重建Layout
+        if (resolveOverflow(widthSize)) {
+            if (engine.isTitleShrunk()) {
+                titleSlot.measure(engine.getTitleWidth());
+                if (isVisible(subtitleSlot)) {
+                    subtitleSlot.measure(engine.getTitleWidth());
+                }
+            }
+            if (engine.isExtraShrunk() && isVisible(extraSlot)) {
+                extraSlot.measure(engine.getExtraWidth());
+            }
+            loadSlotSizes();
         }
 
-        measureChild(title, widthMeasureSpec, heightMeasureSpec);
-        int titleMeasuredWidth = title.getMeasuredWidth();
-        int titleMeasuredHeight = title.getMeasuredHeight();
+        int height = engine.measureHeight();
+
+        setMeasuredDimension(widthMode == MeasureSpec.EXACTLY ? widthSize : width,
+                heightMode == MeasureSpec.EXACTLY ? heightSize : height);
+    }
 
-        int subtitleMeasuredWidth = 0;
-        int subtitleMeasuredHeight = 0;
-        if (subtitle != null) {
-            measureChild(subtitle, widthMeasureSpec, heightMeasureSpec);
-            subtitleMeasuredWidth = subtitle.getMeasuredWidth();
-            subtitleMeasuredHeight = subtitle.getMeasuredHeight();
+    private void onLayoutFlat() {
+        setBounds(leadingBounds, TileLayoutEngine.LEADING);
+        setBounds(trailingBounds, TileLayoutEngine.TRAILING);
+        titleSlot.setPosition(engine.getLeft(TileLayoutEngine.TITLE), engine.getTop(TileLayoutEngine.TITLE));
+        if (isVisible(subtitleSlot)) {
+            subtitleSlot.setPosition(engine.getLeft(TileLayoutEngine.SUBTITLE), engine.getTop(TileLayoutEngine.SUBTITLE));
+        }
+        if (isVisible(extraSlot)) {
+            extraSlot.setPosition(engine.getLeft(TileLayoutEngine.EXTRA), engine.getTop(TileLayoutEngine.EXTRA));
+        } else {
+            setBounds(extraBounds, TileLayoutEngine.EXTRA);
         }
+    }
 
-        int maxTitleWidth = Math.max(titleMeasuredWidth, subtitleMeasuredWidth);
-        width += maxTitleWidth;
-        height = Math.max(height, titleMeasuredHeight + subtitleMeasuredHeight + subtitleTopMargin);
+    private void setBounds(@NonNull Rect bounds, int slot) {
+        int left = engine.getLeft(slot);
+        int top = engine.getTop(slot);
+        bounds.set(left, top, left + engine.getWidth(slot), top + engine.getHeight(slot));
+    }
 
-        int extraMeasuredWidth = 0;
-        if (extra != null) {
-            measureChild(extra, widthMeasureSpec, heightMeasureSpec);
-            extraMeasuredWidth = extra.getMeasuredWidth();
-            int extraMeasuredHeight = extra.getMeasuredHeight();
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
 
-            width += extraMeasuredWidth + extraLeftMargin;
-            height = Math.max(height, extraMeasuredHeight);
+        // 开启显示列表缓存时在dispatchDraw()中与子View一起录制
+        if (flat && (displayList == null || !displayList.canDraw(canvas))) {
+            drawFlat(canvas);
         }
+    }
 
-        width += getPaddingLeft() + getPaddingRight();
-        height += getPaddingTop() + getPaddingBottom();
-
-        // title/subtitle + extra超过最大可用空间，但是其中之一没有超过最大可用空间
-        // TODO: 2019/8/1 优化：title/subtitle、extra都超过最大可用空间时，两者该如何布局
-        if (width > widthSize) {
-            if (maxTitleWidth > extraMeasuredWidth) {
-                // 裁剪title
-                int titleActualWidth = maxTitleWidth - (width - widthSize);
-                LayoutParams lpTitle = title.getLayoutParams();
-                lpTitle.width = titleActualWidth;
-                title.setLayoutParams(lpTitle);
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        if (displayList == null || !displayList.canDraw(canvas)) {
+            super.dispatchDraw(canvas);
+            return;
+        }
 
-                // 裁剪subtitle
-                if (subtitle != null) {
-                    LayoutParams lpSubtitle = subtitle.getLayoutParams();
-                    lpSubtitle.width = titleActualWidth;
-                    subtitle.setLayoutParams(lpSubtitle);
-                }
-            } else {
-                // 裁剪extra
-                int extraActualWidth = extraMeasuredWidth - (width - widthSize);
-                LayoutParams layoutParams = extra.getLayoutParams();
-                layoutParams.width = extraActualWidth;
-                extra.setLayoutParams(layoutParams);
+        final int width = getWidth();
+        final int height = getHeight();
+        if (!displayList.isValid(contentVersion, width, height)) {
+            Canvas recordingCanvas = displayList.beginRecording(width, height);
+            if (flat) {
+                drawFlat(recordingCanvas);
             }
+            super.dispatchDraw(recordingCanvas);
+            displayList.endRecording(contentVersion);
         }
-
-        setMeasuredDimension(widthMode == MeasureSpec.EXACTLY ? widthSize : width,
-                heightMode == MeasureSpec.EXACTLY ? heightSize : height);
+        displayList.draw(canvas);
     }
 
     @Override
-    protected void onLayout(boolean changed, int l, int t, int r, int b) {
-        final int parentLeft = getPaddingLeft();
-        final int parentRight = r - l - getPaddingRight();
-        final int parentTop = getPaddingTop();
-        final int parentBottom = b - t - getPaddingBottom();
-
-        int childLeft = parentLeft;
+    public void onDescendantInvalidated(@NonNull View child, @NonNull View target) {
+        invalidateDisplayList();
+        super.onDescendantInvalidated(child, target);
+    }
 
-        if (leading != null) {
-            int width = leading.getMeasuredWidth();
-            int height = leading.getMeasuredHeight();
-            int childTop = parentTop + (parentBottom - parentTop - height) / 2;
+    @SuppressWarnings("deprecation")
+    @Override
+    public ViewParent invalidateChildInParent(int[] location, Rect dirty) {
+        invalidateDisplayList();
+        return super.invalidateChildInParent(location, dirty);
+    }
 
-            leading.layout(childLeft, childTop, childLeft + width, childTop + height);
-            childLeft += width + leadingRightMargin;
+    @Override
+    public void invalidateDrawable(@NonNull Drawable drawable) {
+        // 只有flat模式直接绘制的图片在录制内容中，背景和前景（例如水波纹动画）的重绘交给super，不需要重新录制
+        if (flat && (drawable == leadingDrawable || drawable == trailingDrawable || drawable == extraDrawable)) {
+            invalidateDisplayList();
         }
+        super.invalidateDrawable(drawable);
+    }
 
-        if (subtitle == null) {
-            int width = title.getMeasuredWidth();
-            int height = title.getMeasuredHeight();
-            int childTop = parentTop + (parentBottom - parentTop - height) / 2;
-
-            title.layout(childLeft, childTop, childLeft + width, childTop + height);
-            // childLeft += width;
-        } else {
-            int titleWidth = title.getMeasuredWidth();
-            int titleHeight = title.getMeasuredHeight();
-            int subtitleWidth = subtitle.getMeasuredWidth();
-            int subtitleHeight = subtitle.getMeasuredHeight();
-            int childTop = parentTop + (parentBottom - parentTop - titleHeight - subtitleHeight - subtitleTopMargin) / 2;
-
-            title.layout(childLeft, childTop, childLeft + titleWidth, childTop + titleHeight);
-            childTop += titleHeight + subtitleTopMargin;
-            subtitle.layout(childLeft, childTop, childLeft + subtitleWidth, childTop + subtitleHeight);
-            // childLeft += Math.max(titleWidth, subtitleWidth);
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        if (displayList != null) {
+            displayList.release();
+        }
+        if (alignmentGroup != null) {
+            // 不再显示的ListTile不参与列宽统计，重新attach后测量时再上报
+            reportAlignedWidths(ListTileAlignmentGroup.NO_WIDTH, ListTileAlignmentGroup.NO_WIDTH);
         }
+    }
 
-        int childRight = parentRight;
+    private void invalidateDisplayList() {
+        if (displayList != null) {
+            displayList.invalidate();
+        }
+    }
 
-        if (trailing != null) {
-            int width = trailing.getMeasuredWidth();
-            int height = trailing.getMeasuredHeight();
-            int childTop = parentTop + (parentBottom - parentTop - height) / 2;
+    @Nullable
+    public ListTileAlignmentGroup getAlignmentGroup() {
+        return alignmentGroup;
+    }
 
-            trailing.layout(childRight - width, childTop, childRight, childTop + height);
-            childRight -= trailingLeftMargin + width;
+    /**
+     * 通过{@link ListTileAlignmentGroup#join(ListTile)}和{@link ListTileAlignmentGroup#leave(ListTile)}调用
+     */
+    void setAlignmentGroup(@Nullable ListTileAlignmentGroup group) {
+        if (alignmentGroup == group) {
+            return;
+        }
+        if (alignmentGroup != null) {
+            alignmentGroup.remove(this);
+        }
+        alignedTrailingWidth = ListTileAlignmentGroup.NO_WIDTH;
+        alignedExtraWidth = ListTileAlignmentGroup.NO_WIDTH;
+        alignmentGroup = group;
+        if (group != null) {
+            group.add(this);
+        } else {
+            engine.setColumnWidths(0, 0);
         }
+        onAlignmentChanged();
+    }
 
-        if (extra != null) {
-            int width = extra.getMeasuredWidth();
-            int height = extra.getMeasuredHeight();
-            int childTop = parentTop + (parentBottom - parentTop - height) / 2;
+    @Px
+    int getAlignedTrailingWidth() {
+        return alignedTrailingWidth;
+    }
 
-            extra.layout(childRight - width, childTop, childRight, childTop + height);
-            // childRight -= extraLeftMargin + width;
-        }
+    @Px
+    int getAlignedExtraWidth() {
+        return alignedExtraWidth;
     }
 
     /**
-     * 对目标Drawable进行着色
-     *
-     * @param drawable 目标Drawable
-     * @param color    着色Color
-     * @return 着色处理后的Drawable
-     */
-    private Drawable tint(@NonNull Drawable drawable, @ColorInt int color) {
-        // 获取此drawable的共享状态实例
-        Drawable.ConstantState state = drawable.getConstantState();
-        // 对drawable进行重新实例化、包装、可变操作
-        Drawable wrappedDrawable = DrawableCompat.wrap(state == null ? drawable : state.newDrawable()).mutate();
-        // 进行着色
-        DrawableCompat.setTint(wrappedDrawable, color);
-        return wrappedDrawable;
+     * 对齐组的列宽发生变化，测量缓存失效，下一帧重新测量时子View和文本仍然命中各自的缓存
+     */
+    void onAlignmentChanged() {
+        contentVersion++;
+        refresh();
     }
 
-    @NonNull
-    public ImageView getLeading() {
-        return Objects.requireNonNull(leading, "Leading not set!");
+    /**
+     * 测量槽位后向对齐组上报trailing和extra的宽度，并按对齐组的列宽计算布局
+     */
+    private void updateAlignment() {
+        if (alignmentGroup == null) {
+            return;
+        }
+        reportAlignedWidths(
+                engine.hasSlot(TileLayoutEngine.TRAILING) ? engine.getWidth(TileLayoutEngine.TRAILING) : ListTileAlignmentGroup.NO_WIDTH,
+                engine.hasSlot(TileLayoutEngine.EXTRA) ? engine.getWidth(TileLayoutEngine.EXTRA) : ListTileAlignmentGroup.NO_WIDTH);
+        engine.setColumnWidths(alignmentGroup.getTrailingColumnWidth(), alignmentGroup.getExtraColumnWidth());
     }
 
-    @NonNull
-    public ImageView getTrailing() {
-        return Objects.requireNonNull(trailing, "Trailing not set!");
+    private void reportAlignedWidths(@Px int trailingWidth, @Px int extraWidth) {
+        final int oldTrailingWidth = alignedTrailingWidth;
+        final int oldExtraWidth = alignedExtraWidth;
+        if (trailingWidth == oldTrailingWidth && extraWidth == oldExtraWidth) {
+            return;
+        }
+        alignedTrailingWidth = trailingWidth;
+        alignedExtraWidth = extraWidth;
+        alignmentGroup.update(this, oldTrailingWidth, oldExtraWidth, trailingWidth, extraWidth);
     }
 
-    @NonNull
-    public TextView getTitle() {
-        return Objects.requireNonNull(title, "Title not set!");
+    public boolean isDisplayListCacheEnabled() {
+        return displayList != null;
     }
 
-    @NonNull
-    public TextView getSubtitle() {
-        return Objects.requireNonNull(subtitle, "Subtitle not set!");
+    /**
+     * 当前的录制结果是否可以直接回放，用于单元测试
+     */
+    boolean isDisplayListValid() {
+        return displayList != null && displayList.isValid(contentVersion, getWidth(), getHeight());
     }
 
-    @NonNull
-    public TextView getExtraText() {
-        if (extraType == ExtraType.TEXT) {
-            return (TextView) Objects.requireNonNull(extra, "Extra not set!");
-        } else {
-            throw new IllegalStateException("Extra Text not set!");
+    /**
+     * 设置是否开启显示列表缓存，适用于内容很少变化的列表项，例如设置页
+     */
+    public void setDisplayListCacheEnabled(boolean enabled) {
+        if (enabled == (displayList != null)) {
+            return;
         }
-    }
 
-    @NonNull
-    public ImageView getExtraImage() {
-        if (extraType == ExtraType.IMAGE) {
-            return (ImageView) Objects.requireNonNull(extra, "Extra not set!");
+        if (enabled) {
+            displayList = TileDisplayList.create();
         } else {
-            throw new IllegalStateException("Extra Image not set!");
+            displayList.release();
+            displayList = null;
         }
+        invalidate();
     }
 
-    public void tintLeading(@ColorRes int color) {
-        int tint = ContextCompat.getColor(getContext(), color);
-        leading.setImageTintList(ColorStateList.valueOf(tint));
+    private void drawFlat(@NonNull Canvas canvas) {
+        drawCenterCrop(canvas, leadingDrawable, leadingBounds);
+        drawCenterCrop(canvas, trailingDrawable, trailingBounds);
+        drawCenterCrop(canvas, extraDrawable, extraBounds);
+        titleSlot.draw(canvas);
+        if (isVisible(subtitleSlot)) {
+            subtitleSlot.draw(canvas);
+        }
+        if (isVisible(extraSlot)) {
+            extraSlot.draw(canvas);
+        }
     }
 
-    public void tintTrailing(@ColorRes int color) {
-        int tint = ContextCompat.getColor(getContext(), color);
-        trailing.setImageTintList(ColorStateList.valueOf(tint));
-    }
+    /**
+     * 按照{@link ScaleType#CENTER_CROP}的规则将Drawable绘制到目标区域
+     */
+    private static void drawCenterCrop(@NonNull Canvas canvas, @Nullable Drawable drawable, @NonNull Rect bounds) {
+        if (drawable == null || bounds.isEmpty()) {
+            return;
+        }
 
-    public void setLeadingDrawable(@DrawableRes int drawable) {
-        getLeading().setImageResource(drawable);
-    }
+        final int dw = drawable.getIntrinsicWidth();
+        final int dh = drawable.getIntrinsicHeight();
+        final int vw = bounds.width();
+        final int vh = bounds.height();
 
-    public void setLeadingDrawable(Drawable drawable) {
-        getLeading().setImageDrawable(drawable);
-    }
+        int saveCount = canvas.save();
+        canvas.clipRect(bounds);
+        canvas.translate(bounds.left, bounds.top);
 
-    public void setTrailingDrawable(@DrawableRes int drawable) {
-        getTrailing().setImageResource(drawable);
-    }
+        if (dw <= 0 || dh <= 0) {
+            // 没有固有尺寸时直接填充
+            drawable.setBounds(0, 0, vw, vh);
+        } else {
+            drawable.setBounds(0, 0, dw, dh);
 
-    public void setTrailingDrawable(Drawable drawable) {
-        getTrailing().setImageDrawable(drawable);
-    }
+            float scale;
+            float dx = 0, dy = 0;
+            if (dw * vh > vw * dh) {
+                scale = (float) vh / (float) dh;
+                dx = (vw - dw * scale) * 0.5f;
+            } else {
+                scale = (float) vw / (float) dw;
+                dy = (vh - dh * scale) * 0.5f;
+            }
+            canvas.translate(Math.round(dx), Math.round(dy));
+            canvas.scale(scale, scale);
+        }
 
-    public void setTitleText(@StringRes int text) {
-        getTitle().setText(text);
-        refresh();
+        drawable.draw(canvas);
+        canvas.restoreToCount(saveCount);
     }
 
-    public void setTitleText(CharSequence text) {
-        getTitle().setText(text);
-        refresh();
+    /**
+     * flat模式下替换Drawable，并维护Drawable的回调
+     */
+    private Drawable attachDrawable(@Nullable Drawable oldDrawable, @Nullable Drawable newDrawable) {
+        if (oldDrawable != null) {
+            oldDrawable.setCallback(null);
+        }
+        if (newDrawable != null) {
+            newDrawable.setCallback(this);
+        }
+        return newDrawable;
     }
 
-    public void setSubtitleText(@StringRes int text) {
-        getSubtitle().setText(text);
-        refresh();
+    @Override
+    protected boolean verifyDrawable(@NonNull Drawable who) {
+        return super.verifyDrawable(who) || (flat && (who == leadingDrawable || who == trailingDrawable || who == extraDrawable));
     }
 
-    public void setSubtitleText(CharSequence text) {
-        getSubtitle().setText(text);
-        refresh();
+    /**
+     * flat模式下与{@link ImageView#setImageTintList(ColorStateList)}对应的着色处理
+     */
+    private Drawable tint(@Nullable Drawable drawable, @Nullable ColorStateList tint) {
+        if (drawable == null || tint == null) {
+            return drawable;
+        }
+        Drawable wrappedDrawable = DrawableCompat.wrap(drawable).mutate();
+        DrawableCompat.setTintList(wrappedDrawable, tint);
+        return wrappedDrawable;
     }
 
-    public void setExtraText(@StringRes int text) {
-        getExtraText().setText(text);
-        refresh();
+    /**
+     * 设置TextView的文本，预计算文本的参数与TextView一致时直接使用预计算结果
+     */
+    private static void setText(@NonNull TextView textView, CharSequence text) {
+        if (text instanceof PrecomputedTextCompat
+                && ((PrecomputedTextCompat) text).getParams().equals(TextViewCompat.getTextMetricsParams(textView))) {
+            TextViewCompat.setPrecomputedText(textView, (PrecomputedTextCompat) text);
+        } else {
+            textView.setText(text);
+        }
     }
 
-    public void setExtraText(CharSequence text) {
-        getExtraText().setText(text);
-        refresh();
+    @Nullable
+    PrecomputedTextCompat.Params getTitleTextMetricsParams() {
+        return flat ? titleSlot.getTextMetricsParams() : TextViewCompat.getTextMetricsParams(title);
     }
 
     /**
-     * 当在代码中调用了可能改变组件大小的方法之后，需要调用该方法重新布局。例如TextView的setText()方法。
-     * <p>
-     * 注意：组件初始化setText()时不需要调用该方法。
+     * subtitle不存在时会创建一个隐藏的subtitle
      */
-    public void refresh() {
-        post(new Runnable() {
-            @Override
-            public void run() {
-                requestLayout();
+    @NonNull
+    PrecomputedTextCompat.Params getSubtitleTextMetricsParams() {
+        if (flat) {
+            if (subtitleSlot == null) {
+                ensureSubtitleSlot().setVisible(false);
             }
-        });
+            return subtitleSlot.getTextMetricsParams();
+        }
+        if (subtitle == null) {
+            ensureSubtitle().setVisibility(GONE);
+        }
+        return TextViewCompat.getTextMetricsParams(subtitle);
+    }
+
+    /**
+     * extra为图片类型时返回null，extra不存在时会创建一个隐藏的extra文本
+     */
+    @Nullable
+    PrecomputedTextCompat.Params getExtraTextMetricsParams() {
+        if (extraType == ExtraType.IMAGE) {
+            return null;
+        }
+        if (flat) {
+            if (extraSlot == null) {
+                ensureExtraSlot().setVisible(false);
+            }
+            return extraSlot.getTextMetricsParams();
+        }
+        if (extra == null) {
+            ensureExtraText().setVisibility(GONE);
+        }
+        return TextViewCompat.getTextMetricsParams((TextView) extra);
+    }
+
+    /**
+     * 以指定宽度测量、布局并绘制到新的位图中，高度由内容决定，用于通知、分享卡片、桌面小部件等。
+     * <p>
+     * 可以在后台线程调用，ListTile不能已经attach到窗口。通过{@link #loadLeading(Uri)}等方法异步加载的图片
+     * 在加载完成之前不会绘制，需要同步绘制的图片请直接设置Drawable。
+     *
+     * @param width 位图宽度，包括padding
+     */
+    @NonNull
+    public Bitmap renderToBitmap(@Px int width) {
+        if (isAttachedToWindow()) {
+            throw new IllegalStateException("Cannot render a ListTile attached to a window!");
+        }
+        if (width <= 0) {
+            throw new IllegalArgumentException("Width must be positive!");
+        }
+
+        measure(MeasureSpec.makeMeasureSpec(width, MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+        final int height = Math.max(getMeasuredHeight(), 1);
+        layout(0, 0, width, height);
+
+        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        draw(new Canvas(bitmap));
+        return bitmap;
+    }
+
+    /**
+     * 是否为flat模式
+     */
+    public boolean isFlat() {
+        return flat;
+    }
+
+    private void checkNotFlat() {
+        if (flat) {
+            throw new IllegalStateException("Child views are not available in flat mode!");
+        }
+    }
+
+    private static boolean isVisible(@Nullable View child) {
+        return child != null && child.getVisibility() != GONE;
+    }
+
+    private static boolean isVisible(@Nullable TextSlot slot) {
+        return slot != null && slot.isVisible();
+    }
+
+    private static void hide(@Nullable View child) {
+        if (child != null) {
+            child.setVisibility(GONE);
+        }
+    }
+
+    @NonNull
+    private ImageView createImageView(@Px int size) {
+        ImageView imageView = new ImageView(getContext());
+        imageView.setScaleType(ScaleType.CENTER_CROP);
+        imageView.setLayoutParams(new LayoutParams(size, size));
+        return imageView;
+    }
+
+    @NonNull
+    private TextView createSingleLineTextView(@StyleRes int textAppearance, @ColorInt int color) {
+        TextView textView = new TextView(getContext());
+        textView.setTextAppearance(getContext(), textAppearance);
+        textView.setTextColor(color);
+        textView.setLines(1);
+        textView.setEllipsize(TextUtils.TruncateAt.END);
+        textView.setGravity(Gravity.START);
+        return textView;
+    }
+
+    // 以下ensureXxx()方法在槽位不存在时按需创建
+
+    @NonNull
+    private ImageView ensureLeading() {
+        if (leading == null) {
+            leading = createImageView(leadingSize);
+            addView(leading);
+        }
+        return leading;
+    }
+
+    @NonNull
+    private ImageView ensureTrailing() {
+        if (trailing == null) {
+            trailing = createImageView(trailingSize);
+            addView(trailing);
+        }
+        return trailing;
+    }
+
+    @NonNull
+    private TextView ensureSubtitle() {
+        if (subtitle == null) {
+            subtitle = createSingleLineTextView(style.subtitleTextAppearance, style.subtitleColor);
+            addView(subtitle);
+        }
+        return subtitle;
+    }
+
+    @NonNull
+    private TextView ensureExtraText() {
+        switchExtraType(ExtraType.TEXT);
+        if (extra == null) {
+            TextView extraTextView = new TextView(getContext());
+            extraTextView.setTextAppearance(getContext(), style.extraTextAppearance);
+            extraTextView.setTextColor(style.extraColor);
+            extraTextView.setGravity(Gravity.END);
+
+            extra = extraTextView;
+
+            addView(extra);
+        }
+        return (TextView) extra;
+    }
+
+    @NonNull
+    private ImageView ensureExtraImage() {
+        switchExtraType(ExtraType.IMAGE);
+        if (extra == null) {
+            extra = createImageView(extraSize);
+            addView(extra);
+        }
+        return (ImageView) extra;
+    }
+
+    @NonNull
+    private TextSlot ensureSubtitleSlot() {
+        if (subtitleSlot == null) {
+            subtitleSlot = new TextSlot(getContext(), style.subtitleTextAppearance, style.subtitleColor, 1,
+                    Layout.Alignment.ALIGN_NORMAL);
+        }
+        return subtitleSlot;
+    }
+
+    @NonNull
+    private TextSlot ensureExtraSlot() {
+        switchExtraType(ExtraType.TEXT);
+        if (extraSlot == null) {
+            // extra允许多行，TextView的Gravity.END对应Layout的ALIGN_OPPOSITE
+            extraSlot = new TextSlot(getContext(), style.extraTextAppearance, style.extraColor, Integer.MAX_VALUE,
+                    Layout.Alignment.ALIGN_OPPOSITE);
+        }
+        return extraSlot;
+    }
+
+    /**
+     * 切换extra的类型，原有的extra会被移除
+     */
+    private void switchExtraType(@ExtraType int type) {
+        if (extraType != type) {
+            removeExtraContent();
+            extraType = type;
+        }
+    }
+
+    private void removeExtraContent() {
+        if (flat) {
+            extraSlot = null;
+            extraDrawable = attachDrawable(extraDrawable, null);
+            extraSource.set(0, null);
+        } else if (extra != null) {
+            removeView(extra);
+            extra = null;
+        }
+    }
+
+    // 以下applyXxx()方法修改槽位内容，为null时隐藏槽位，不为null时按需创建并显示槽位。
+    // 内容与当前相同时直接返回false，重新绑定未变化的列表项时不会解析资源、着色或触发布局
+
+    private boolean applyLeading(@Nullable Drawable drawable) {
+        if (flat) {
+            if (leadingSource.res == 0 && leadingSource.drawable == drawable) {
+                return false;
+            }
+            leadingSource.set(0, drawable);
+            leadingDrawable = attachDrawable(leadingDrawable, tint(drawable, leadingTint));
+        } else if (drawable == null) {
+            if (!isVisible(leading)) {
+                return false;
+            }
+            hide(leading);
+        } else {
+            if (isVisible(leading) && leading.getDrawable() == drawable) {
+                return false;
+            }
+            ensureLeading().setImageDrawable(drawable);
+            leading.setVisibility(VISIBLE);
+        }
+        return true;
+    }
+
+    private boolean applyLeading(@DrawableRes int drawable) {
+        if (drawable == 0) {
+            return applyLeading(null);
+        }
+        if (flat) {
+            if (leadingSource.res == drawable) {
+                return false;
+            }
+            Drawable source = loadIcon(drawable, leadingSize);
+            leadingSource.set(drawable, source);
+            leadingDrawable = attachDrawable(leadingDrawable, tint(source, leadingTint));
+        } else {
+            if (isVisible(leading) && leadingSource.res == drawable && leading.getDrawable() == leadingSource.drawable) {
+                return false;
+            }
+            setImageResource(ensureLeading(), drawable, leadingSize);
+            leading.setVisibility(VISIBLE);
+            leadingSource.set(drawable, leading.getDrawable());
+        }
+        return true;
+    }
+
+    private boolean applyTrailing(@Nullable Drawable drawable) {
+        if (flat) {
+            if (trailingSource.res == 0 && trailingSource.drawable == drawable) {
+                return false;
+            }
+            trailingSource.set(0, drawable);
+            trailingDrawable = attachDrawable(trailingDrawable, tint(drawable, trailingTint));
+        } else if (drawable == null) {
+            if (!isVisible(trailing)) {
+                return false;
+            }
+            hide(trailing);
+        } else {
+            if (isVisible(trailing) && trailing.getDrawable() == drawable) {
+                return false;
+            }
+            ensureTrailing().setImageDrawable(drawable);
+            trailing.setVisibility(VISIBLE);
+        }
+        return true;
+    }
+
+    private boolean applyTrailing(@DrawableRes int drawable) {
+        if (drawable == 0) {
+            return applyTrailing(null);
+        }
+        if (flat) {
+            if (trailingSource.res == drawable) {
+                return false;
+            }
+            Drawable source = loadIcon(drawable, trailingSize);
+            trailingSource.set(drawable, source);
+            trailingDrawable = attachDrawable(trailingDrawable, tint(source, trailingTint));
+        } else {
+            if (isVisible(trailing) && trailingSource.res == drawable && trailing.getDrawable() == trailingSource.drawable) {
+                return false;
+            }
+            setImageResource(ensureTrailing(), drawable, trailingSize);
+            trailing.setVisibility(VISIBLE);
+            trailingSource.set(drawable, trailing.getDrawable());
+        }
+        return true;
+    }
+
+    private boolean applyTitle(@Nullable CharSequence text) {
+        if (flat) {
+            if (isSameText(titleSlot.getText(), text)) {
+                return false;
+            }
+            titleSlot.setText(text);
+        } else {
+            if (isSameText(title.getText(), text)) {
+                return false;
+            }
+            setText(title, text);
+        }
+        return true;
+    }
+
+    private boolean applySubtitle(@Nullable CharSequence text) {
+        if (flat) {
+            if (text == null) {
+                if (!isVisible(subtitleSlot)) {
+                    return false;
+                }
+                subtitleSlot.setVisible(false);
+            } else {
+                if (isVisible(subtitleSlot) && isSameText(subtitleSlot.getText(), text)) {
+                    return false;
+                }
+                ensureSubtitleSlot().setText(text);
+                subtitleSlot.setVisible(true);
+            }
+        } else if (text == null) {
+            if (!isVisible(subtitle)) {
+                return false;
+            }
+            hide(subtitle);
+        } else {
+            if (isVisible(subtitle) && isSameText(subtitle.getText(), text)) {
+                return false;
+            }
+            setText(ensureSubtitle(), text);
+            subtitle.setVisibility(VISIBLE);
+        }
+        return true;
+    }
+
+    private boolean applyExtraText(@Nullable CharSequence text) {
+        if (text == null) {
+            return hideExtra();
+        }
+        if (flat) {
+            if (extraType == ExtraType.TEXT && isVisible(extraSlot) && isSameText(extraSlot.getText(), text)) {
+                return false;
+            }
+            ensureExtraSlot().setText(text);
+            extraSlot.setVisible(true);
+        } else {
+            if (extraType == ExtraType.TEXT && isVisible(extra) && isSameText(((TextView) extra).getText(), text)) {
+                return false;
+            }
+            setText(ensureExtraText(), text);
+            extra.setVisibility(VISIBLE);
+        }
+        return true;
+    }
+
+    private boolean applyExtraImage(@Nullable Drawable drawable) {
+        if (drawable == null) {
+            return hideExtra();
+        }
+        if (flat) {
+            if (extraType == ExtraType.IMAGE && extraSource.res == 0 && extraSource.drawable == drawable) {
+                return false;
+            }
+            switchExtraType(ExtraType.IMAGE);
+            extraSource.set(0, drawable);
+            extraDrawable = attachDrawable(extraDrawable, drawable);
+        } else {
+            if (extraType == ExtraType.IMAGE && isVisible(extra) && ((ImageView) extra).getDrawable() == drawable) {
+                return false;
+            }
+            ensureExtraImage().setImageDrawable(drawable);
+            extra.setVisibility(VISIBLE);
+        }
+        return true;
+    }
+
+    private boolean applyExtraImage(@DrawableRes int drawable) {
+        if (drawable == 0) {
+            return hideExtra();
+        }
+        if (flat) {
+            if (extraType == ExtraType.IMAGE && extraSource.res == drawable) {
+                return false;
+            }
+            switchExtraType(ExtraType.IMAGE);
+            Drawable source = loadIcon(drawable, extraSize);
+            extraSource.set(drawable, source);
+            extraDrawable = attachDrawable(extraDrawable, source);
+        } else {
+            if (extraType == ExtraType.IMAGE && isVisible(extra) && extraSource.res == drawable
+                    && ((ImageView) extra).getDrawable() == extraSource.drawable) {
+                return false;
+            }
+            setImageResource(ensureExtraImage(), drawable, extraSize);
+            extra.setVisibility(VISIBLE);
+            extraSource.set(drawable, ((ImageView) extra).getDrawable());
+        }
+        return true;
+    }
+
+    private boolean hideExtra() {
+        if (flat) {
+            boolean changed = isVisible(extraSlot) || extraDrawable != null;
+            if (extraSlot != null) {
+                extraSlot.setVisible(false);
+            }
+            extraDrawable = attachDrawable(extraDrawable, null);
+            extraSource.set(0, null);
+            return changed;
+        }
+        if (!isVisible(extra)) {
+            return false;
+        }
+        hide(extra);
+        return true;
+    }
+
+    /**
+     * 加载图标，开启栅格化时矢量图标使用共享的位图
+     */
+    @Nullable
+    private Drawable loadIcon(@DrawableRes int drawable, @Px int size) {
+        if (rasterizeIcons) {
+            Bitmap bitmap = IconBitmapCache.get(getContext(), drawable, size);
+            if (bitmap != null) {
+                return new BitmapDrawable(getResources(), bitmap);
+            }
+        }
+        return ContextCompat.getDrawable(getContext(), drawable);
+    }
+
+    private void setImageResource(@NonNull ImageView imageView, @DrawableRes int drawable, @Px int size) {
+        Bitmap bitmap = rasterizeIcons ? IconBitmapCache.get(getContext(), drawable, size) : null;
+        if (bitmap != null) {
+            imageView.setImageDrawable(new BitmapDrawable(getResources(), bitmap));
+        } else {
+            imageView.setImageResource(drawable);
+        }
+    }
+
+    /**
+     * 文本是否与当前相同：同一个实例，或内容相同的{@link String}。带样式的文本可能只有样式不同，不比较内容
+     */
+    private static boolean isSameText(@Nullable CharSequence current, @Nullable CharSequence text) {
+        return current == text || (current instanceof String && current.equals(text));
+    }
+
+    /**
+     * 获取leading，不存在时会按需创建
+     */
+    @NonNull
+    public ImageView getLeading() {
+        checkNotFlat();
+        return ensureLeading();
+    }
+
+    /**
+     * 获取trailing，不存在时会按需创建
+     */
+    @NonNull
+    public ImageView getTrailing() {
+        checkNotFlat();
+        return ensureTrailing();
+    }
+
+    @NonNull
+    public TextView getTitle() {
+        checkNotFlat();
+        return title;
+    }
+
+    /**
+     * 获取subtitle，不存在时会按需创建
+     */
+    @NonNull
+    public TextView getSubtitle() {
+        checkNotFlat();
+        return ensureSubtitle();
+    }
+
+    /**
+     * 获取extra文本，不存在时会按需创建
+     *
+     * @throws IllegalStateException extra为图片类型时抛出，需要先通过{@link #setExtraType(int)}切换类型
+     */
+    @NonNull
+    public TextView getExtraText() {
+        checkNotFlat();
+        if (extraType == ExtraType.IMAGE) {
+            throw new IllegalStateException("Extra Text not set!");
+        }
+        return ensureExtraText();
+    }
+
+    /**
+     * 获取extra图片，不存在时会按需创建
+     *
+     * @throws IllegalStateException extra为文本类型时抛出，需要先通过{@link #setExtraType(int)}切换类型
+     */
+    @NonNull
+    public ImageView getExtraImage() {
+        checkNotFlat();
+        if (extraType == ExtraType.TEXT) {
+            throw new IllegalStateException("Extra Image not set!");
+        }
+        return ensureExtraImage();
+    }
+
+    /**
+     * 获取extra的类型，未设置extra时返回0
+     */
+    @ExtraType
+    public int getExtraType() {
+        return extraType;
+    }
+
+    /**
+     * 切换extra的类型，类型变化时原有的extra会被移除，之后设置内容时按新的类型创建
+     */
+    public void setExtraType(@ExtraType int extraType) {
+        if (this.extraType == extraType) {
+            return;
+        }
+
+        Editor editor = edit();
+        cancelImageLoad(ListTileImageLoader.SLOT_EXTRA);
+        switchExtraType(extraType);
+        onContentChanged();
+        editor.apply();
+    }
+
+    /**
+     * 移除leading，与设置为null时只隐藏不同，移除后会释放对应的View
+     */
+    public void removeLeading() {
+        Editor editor = edit();
+        cancelImageLoad(ListTileImageLoader.SLOT_LEADING);
+        if (flat) {
+            leadingDrawable = attachDrawable(leadingDrawable, null);
+            leadingSource.set(0, null);
+        } else if (leading != null) {
+            removeView(leading);
+            leading = null;
+        }
+        onContentChanged();
+        editor.apply();
+    }
+
+    /**
+     * 移除trailing，与设置为null时只隐藏不同，移除后会释放对应的View
+     */
+    public void removeTrailing() {
+        Editor editor = edit();
+        if (flat) {
+            trailingDrawable = attachDrawable(trailingDrawable, null);
+            trailingSource.set(0, null);
+        } else if (trailing != null) {
+            removeView(trailing);
+            trailing = null;
+        }
+        onContentChanged();
+        editor.apply();
+    }
+
+    /**
+     * 移除subtitle，与设置为null时只隐藏不同，移除后会释放对应的View
+     */
+    public void removeSubtitle() {
+        Editor editor = edit();
+        if (flat) {
+            subtitleSlot = null;
+        } else if (subtitle != null) {
+            removeView(subtitle);
+            subtitle = null;
+        }
+        onContentChanged();
+        editor.apply();
+    }
+
+    /**
+     * 移除extra，与设置为null时只隐藏不同，移除后会释放对应的View
+     */
+    public void removeExtra() {
+        Editor editor = edit();
+        cancelImageLoad(ListTileImageLoader.SLOT_EXTRA);
+        removeExtraContent();
+        onContentChanged();
+        editor.apply();
+    }
+
+    /**
+     * 异步加载leading图片，按照lt_leading_size降采样，加载完成前显示XML中设置的leading
+     */
+    public void loadLeading(@NonNull Uri uri) {
+        loadImage(ListTileImageLoader.SLOT_LEADING, uri);
+    }
+
+    public void loadLeading(@NonNull File file) {
+        loadImage(ListTileImageLoader.SLOT_LEADING, file);
+    }
+
+    public void loadLeading(@DrawableRes int drawable) {
+        loadImage(ListTileImageLoader.SLOT_LEADING, drawable);
+    }
+
+    /**
+     * 异步加载extra图片，按照lt_extra_size降采样，加载完成前显示XML中设置的extra图片，extra为文本类型时会切换为图片类型
+     */
+    public void loadExtraImage(@NonNull Uri uri) {
+        loadImage(ListTileImageLoader.SLOT_EXTRA, uri);
+    }
+
+    public void loadExtraImage(@NonNull File file) {
+        loadImage(ListTileImageLoader.SLOT_EXTRA, file);
+    }
+
+    public void loadExtraImage(@DrawableRes int drawable) {
+        loadImage(ListTileImageLoader.SLOT_EXTRA, drawable);
+    }
+
+    private void loadImage(int slot, @NonNull Object source) {
+        int size = slot == ListTileImageLoader.SLOT_LEADING ? leadingSize : extraSize;
+        cancelImageLoad(slot);
+
+        Editor editor = edit();
+        Bitmap cached = ListTileImageLoader.getCached(ListTileImageLoader.key(source, size));
+        if (cached != null) {
+            // 命中内存缓存时直接显示，避免闪烁
+            setSlotImage(slot, new BitmapDrawable(getResources(), cached));
+        } else {
+            // 加载完成前显示占位图，占位图与加载结果尺寸相同，不会触发重新测量
+            setSlotImage(slot, getPlaceholder(slot));
+            ListTileImageLoader.Request request = ListTileImageLoader.load(this, slot, source, size);
+            if (slot == ListTileImageLoader.SLOT_LEADING) {
+                leadingRequest = request;
+            } else {
+                extraRequest = request;
+            }
+        }
+        editor.apply();
+    }
+
+    /**
+     * 图片加载完成，在主线程回调
+     *
+     * @param bitmap 解码失败时为null
+     */
+    void onImageLoaded(@NonNull ListTileImageLoader.Request request, @Nullable Bitmap bitmap) {
+        if (request.slot == ListTileImageLoader.SLOT_LEADING) {
+            if (leadingRequest != request) {
+                return;
+            }
+            leadingRequest = null;
+        } else {
+            if (extraRequest != request) {
+                return;
+            }
+            extraRequest = null;
+        }
+
+        Editor editor = edit();
+        if (bitmap != null) {
+            setSlotImage(request.slot, new BitmapDrawable(getResources(), bitmap));
+        } else if (request.source instanceof Integer) {
+            // 矢量图等无法解码为位图的资源直接加载
+            setSlotImage(request.slot, ContextCompat.getDrawable(getContext(), (Integer) request.source));
+        }
+        editor.apply();
+    }
+
+    private void cancelImageLoad(int slot) {
+        if (slot == ListTileImageLoader.SLOT_LEADING) {
+            if (leadingRequest != null) {
+                leadingRequest.cancel();
+                leadingRequest = null;
+            }
+        } else if (extraRequest != null) {
+            extraRequest.cancel();
+            extraRequest = null;
+        }
+    }
+
+    private void setSlotImage(int slot, @Nullable Drawable drawable) {
+        boolean changed = slot == ListTileImageLoader.SLOT_LEADING ? applyLeading(drawable) : applyExtraImage(drawable);
+        if (changed) {
+            onContentChanged();
+        }
+    }
+
+    @NonNull
+    private Drawable getPlaceholder(int slot) {
+        ListTileStyle.DrawableRef placeholder = slot == ListTileImageLoader.SLOT_LEADING ? style.leading : style.extraImage;
+        return placeholder != null ? placeholder.newDrawable(getResources()) : new ColorDrawable();
+    }
+
+    /**
+     * 着色leading，与当前颜色相同时不做任何处理
+     */
+    public void tintLeading(@ColorRes int color) {
+        if (color == leadingTintRes && (flat || (leading != null && leading.getImageTintList() == leadingTint))) {
+            return;
+        }
+        leadingTintRes = color;
+        leadingTint = ColorStateList.valueOf(ContextCompat.getColor(getContext(), color));
+        if (flat) {
+            // 对原始的Drawable着色，避免重复包装
+            leadingDrawable = attachDrawable(leadingDrawable, tint(leadingSource.drawable, leadingTint));
+            invalidateDisplayList();
+            invalidate();
+        } else {
+            ensureLeading().setImageTintList(leadingTint);
+        }
+    }
+
+    /**
+     * 着色trailing，与当前颜色相同时不做任何处理
+     */
+    public void tintTrailing(@ColorRes int color) {
+        if (color == trailingTintRes && (flat || (trailing != null && trailing.getImageTintList() == trailingTint))) {
+            return;
+        }
+        trailingTintRes = color;
+        trailingTint = ColorStateList.valueOf(ContextCompat.getColor(getContext(), color));
+        if (flat) {
+            // 对原始的Drawable着色，避免重复包装
+            trailingDrawable = attachDrawable(trailingDrawable, tint(trailingSource.drawable, trailingTint));
+            invalidateDisplayList();
+            invalidate();
+        } else {
+            ensureTrailing().setImageTintList(trailingTint);
+        }
+    }
+
+    public void setLeadingDrawable(@DrawableRes int drawable) {
+        edit().leading(drawable).apply();
+    }
+
+    public void setLeadingDrawable(Drawable drawable) {
+        edit().leading(drawable).apply();
+    }
+
+    public void setTrailingDrawable(@DrawableRes int drawable) {
+        edit().trailing(drawable).apply();
+    }
+
+    public void setTrailingDrawable(Drawable drawable) {
+        edit().trailing(drawable).apply();
+    }
+
+    public void setTitleText(@StringRes int text) {
+        edit().title(text).apply();
+    }
+
+    public void setTitleText(CharSequence text) {
+        edit().title(text).apply();
+    }
+
+    public void setSubtitleText(@StringRes int text) {
+        edit().subtitle(text).apply();
+    }
+
+    public void setSubtitleText(CharSequence text) {
+        edit().subtitle(text).apply();
+    }
+
+    public void setExtraText(@StringRes int text) {
+        edit().extra(text).apply();
+    }
+
+    public void setExtraText(CharSequence text) {
+        edit().extra(text).apply();
+    }
+
+    public void setExtraImage(@DrawableRes int drawable) {
+        edit().extraImage(drawable).apply();
+    }
+
+    public void setExtraImage(Drawable drawable) {
+        edit().extraImage(drawable).apply();
+    }
+
+    /**
+     * 开始批量修改，所有修改在{@link Editor#apply()}时统一生效，最多触发一次布局：
+     * <pre>
+     * tile.edit().title(title).subtitle(subtitle).extra(extra).leading(icon).apply();
+     * </pre>
+     * 修改后尺寸不变时只在当前边界内重新布局各个槽位，不会向父布局请求重新布局。
+     * <p>
+     * 注意：每次调用该方法之后都必须调用{@link Editor#apply()}，在此之前所有的重新布局请求都会被延迟。
+     *
+     * @return 复用的Editor实例
+     */
+    @NonNull
+    public Editor edit() {
+        editDepth++;
+        return editor;
+    }
+
+    /**
+     * 内容发生变化，使测量缓存失效，并在{@link Editor#apply()}时更新布局
+     */
+    private void onContentChanged() {
+        contentVersion++;
+        pendingUpdate = true;
+    }
+
+    /**
+     * 内容变化后更新布局：测量结果与之前相同时只在当前边界内重新布局自身的槽位，否则向父布局请求重新布局
+     */
+    private void updateLayout() {
+        if (!hasMeasureSpec || !isLaidOut() || isLayoutRequested()) {
+            ListTileMetrics.count(ListTileMetrics.REQUEST_LAYOUT);
+            requestLayout();
+            invalidate();
+            return;
+        }
+
+        if (stableSize) {
+            relayoutInBounds();
+            return;
+        }
+
+        final int oldMeasuredWidth = getMeasuredWidth();
+        final int oldMeasuredHeight = getMeasuredHeight();
+        // 通过measure()测量，forceLayout()清空View自身的测量缓存但不会向父布局请求重新布局，
+        // 否则父布局之后以相同的MeasureSpec测量时会直接返回修改之前的尺寸
+        forceLayout();
+        measure(lastWidthMeasureSpec, lastHeightMeasureSpec);
+
+        if (getMeasuredWidth() == oldMeasuredWidth && getMeasuredHeight() == oldMeasuredHeight) {
+            ListTileMetrics.count(ListTileMetrics.RELAYOUT_IN_PLACE);
+            layout(getLeft(), getTop(), getRight(), getBottom());
+        } else {
+            ListTileMetrics.count(ListTileMetrics.REQUEST_LAYOUT);
+            // 刚刚以相同的MeasureSpec完成测量，不递增内容版本号，父布局重新测量时直接命中测量缓存
+            super.requestLayout();
+        }
+        invalidate();
+    }
+
+    /**
+     * 子View请求重新布局时（例如直接通过{@link #getTitle()}修改了文本）同样视为内容变化，批量修改期间的请求会被延迟。
+     * <p>
+     * 注意：该方法可能在父类构造方法中被调用，此时成员变量尚未初始化。
+     */
+    @Override
+    public void requestLayout() {
+        contentVersion++;
+        if (editDepth > 0) {
+            pendingUpdate = true;
+            return;
+        }
+        super.requestLayout();
+    }
+
+    /**
+     * 固定尺寸模式：以当前尺寸重新测量和布局各个槽位，父布局的MeasureSpec保持不变
+     */
+    private void relayoutInBounds() {
+        final int widthMeasureSpec = lastWidthMeasureSpec;
+        final int heightMeasureSpec = lastHeightMeasureSpec;
+        forceLayout();
+        measure(MeasureSpec.makeMeasureSpec(getWidth(), MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(getHeight(), MeasureSpec.EXACTLY));
+        lastWidthMeasureSpec = widthMeasureSpec;
+        lastHeightMeasureSpec = heightMeasureSpec;
+
+        ListTileMetrics.count(ListTileMetrics.RELAYOUT_IN_PLACE);
+        layout(getLeft(), getTop(), getRight(), getBottom());
+        invalidate();
+    }
+
+    @NonNull
+    ListTileStyle getStyle() {
+        return style;
+    }
+
+    /**
+     * 复用ListTile展示另一个样式的内容，两个样式的布局属性必须相同，参见{@link ListTileStyle#hasSameLayout(ListTileStyle)}
+     */
+    void applyStyle(@NonNull ListTileStyle style) {
+        if (!this.style.hasSameLayout(style)) {
+            throw new IllegalArgumentException("The layout of the style is different!");
+        }
+        this.style = style;
+
+        final Resources res = getResources();
+        Editor editor = edit();
+        editor.leading(style.leading == null ? null : style.leading.newDrawable(res))
+                .trailing(style.trailing == null ? null : style.trailing.newDrawable(res))
+                .title(style.title)
+                .subtitle(style.subtitle);
+        if (style.extraImage != null) {
+            editor.extraImage(style.extraImage.newDrawable(res));
+        } else {
+            editor.extra(style.extraText);
+        }
+        editor.apply();
+    }
+
+    @OverflowPolicy
+    public int getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * 设置内容宽度超出时title/subtitle与extra分配宽度的策略
+     */
+    public void setOverflowPolicy(@OverflowPolicy int overflowPolicy) {
+        if (this.overflowPolicy == overflowPolicy) {
+            return;
+        }
+
+        Editor editor = edit();
+        this.overflowPolicy = overflowPolicy;
+        engine.setOverflowPolicy(overflowPolicy);
+        onContentChanged();
+        editor.apply();
+    }
+
+    /**
+     * 设置内容宽度超出时title/subtitle和extra至少保留的宽度，内容本身更窄时以内容宽度为准
+     */
+    public void setMinWidths(@Px int titleMinWidth, @Px int extraMinWidth) {
+        Editor editor = edit();
+        this.titleMinWidth = titleMinWidth;
+        this.extraMinWidth = extraMinWidth;
+        onContentChanged();
+        editor.apply();
+    }
+
+    public boolean isStableSize() {
+        return stableSize;
+    }
+
+    /**
+     * 设置是否为固定尺寸模式，开启后内容变化不会触发父布局重新布局，适用于所有列表项高度相同的列表。
+     * 内容超出当前范围时按照溢出规则裁剪。
+     */
+    public void setStableSize(boolean stableSize) {
+        this.stableSize = stableSize;
+    }
+
+    /**
+     * 当在代码中通过getter直接调用了可能改变组件大小的方法之后，可以调用该方法重新布局。例如TextView的setText()方法。
+     * <p>
+     * 注意：ListTile自身的setter和{@link #edit()}不需要调用该方法。
+     */
+    public void refresh() {
+        removeCallbacks(refreshRunnable);
+        if (!refreshCounted) {
+            refreshCounted = ListTileMetrics.onRefreshPosted();
+        }
+        post(refreshRunnable);
+    }
+
+    /**
+     * 图片槽位当前内容的来源
+     */
+    private static final class ImageSource {
+        /**
+         * 通过资源设置时的资源ID，否则为0
+         */
+        @DrawableRes
+        int res;
+        /**
+         * flat模式下为着色前的Drawable，否则为设置后ImageView中的Drawable
+         */
+        @Nullable
+        Drawable drawable;
+
+        void set(@DrawableRes int res, @Nullable Drawable drawable) {
+            this.res = res;
+            this.drawable = drawable;
+        }
+    }
+
+    /**
+     * 批量修改ListTile的内容，通过{@link #edit()}获取。
+     * <p>
+     * 文本同样接受在后台线程生成的{@link PrecomputedTextCompat}，参见{@link ListTileTextPrecomputer}。
+     */
+    public final class Editor {
+        private Editor() {
+        }
+
+        @NonNull
+        public Editor title(@StringRes int text) {
+            return title(getContext().getText(text));
+        }
+
+        @NonNull
+        public Editor title(CharSequence text) {
+            if (applyTitle(text)) {
+                onContentChanged();
+            }
+            return this;
+        }
+
+        @NonNull
+        public Editor subtitle(@StringRes int text) {
+            return subtitle(getContext().getText(text));
+        }
+
+        /**
+         * @param text 为null时隐藏subtitle
+         */
+        @NonNull
+        public Editor subtitle(@Nullable CharSequence text) {
+            if (applySubtitle(text)) {
+                onContentChanged();
+            }
+            return this;
+        }
+
+        @NonNull
+        public Editor extra(@StringRes int text) {
+            return extra(getContext().getText(text));
+        }
+
+        /**
+         * extra为图片类型时会切换为文本类型
+         *
+         * @param text 为null时隐藏extra
+         */
+        @NonNull
+        public Editor extra(@Nullable CharSequence text) {
+            cancelImageLoad(ListTileImageLoader.SLOT_EXTRA);
+            if (applyExtraText(text)) {
+                onContentChanged();
+            }
+            return this;
+        }
+
+        /**
+         * extra为文本类型时会切换为图片类型
+         *
+         * @param drawable 为0时隐藏extra
+         */
+        @NonNull
+        public Editor extraImage(@DrawableRes int drawable) {
+            cancelImageLoad(ListTileImageLoader.SLOT_EXTRA);
+            if (applyExtraImage(drawable)) {
+                onContentChanged();
+            }
+            return this;
+        }
+
+        /**
+         * extra为文本类型时会切换为图片类型
+         *
+         * @param drawable 为null时隐藏extra
+         */
+        @NonNull
+        public Editor extraImage(@Nullable Drawable drawable) {
+            cancelImageLoad(ListTileImageLoader.SLOT_EXTRA);
+            if (applyExtraImage(drawable)) {
+                onContentChanged();
+            }
+            return this;
+        }
+
+        /**
+         * @param drawable 为0时隐藏leading
+         */
+        @NonNull
+        public Editor leading(@DrawableRes int drawable) {
+            cancelImageLoad(ListTileImageLoader.SLOT_LEADING);
+            if (applyLeading(drawable)) {
+                onContentChanged();
+            }
+            return this;
+        }
+
+        /**
+         * @param drawable 为null时隐藏leading
+         */
+        @NonNull
+        public Editor leading(@Nullable Drawable drawable) {
+            cancelImageLoad(ListTileImageLoader.SLOT_LEADING);
+            if (applyLeading(drawable)) {
+                onContentChanged();
+            }
+            return this;
+        }
+
+        /**
+         * @param drawable 为0时隐藏trailing
+         */
+        @NonNull
+        public Editor trailing(@DrawableRes int drawable) {
+            if (applyTrailing(drawable)) {
+                onContentChanged();
+            }
+            return this;
+        }
+
+        /**
+         * @param drawable 为null时隐藏trailing
+         */
+        @NonNull
+        public Editor trailing(@Nullable Drawable drawable) {
+            if (applyTrailing(drawable)) {
+                onContentChanged();
+            }
+            return this;
+        }
+
+        /**
+         * 使所有修改生效，最多触发一次布局
+         */
+        public void apply() {
+            if (editDepth == 0) {
+                throw new IllegalStateException("apply() must be called after edit()!");
+            }
+            if (--editDepth > 0) {
+                return;
+            }
+
+            if (pendingUpdate) {
+                pendingUpdate = false;
+                // 只统计ListTile自身的更新，不包括调用方在edit()和apply()之间的耗时
+                final long start = ListTileMetrics.begin(ListTileMetrics.EDIT);
+                try {
+                    updateLayout();
+                } finally {
+                    ListTileMetrics.end(ListTileMetrics.EDIT, start);
+                }
+            }
+        }
     }
 }
@@ -0,0 +1,151 @@
+package com.nightkyb.listtile;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.LayoutRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * 以{@link ListTileModel}为数据的RecyclerView适配器。
+ * <p>
+ * 通过{@link #submitList(List)}提交新数据后，在后台线程使用DiffUtil计算差异，
+ * 并以payload的形式只重新绑定发生变化的槽位，例如extra中的角标数量变化时不会重新设置title和leading。
+ *
+ * @author nightkyb
+ */
+public class ListTileAdapter extends ListAdapter<ListTileModel, ListTileAdapter.ViewHolder> {
+    private static final DiffUtil.ItemCallback<ListTileModel> DIFF_CALLBACK = new DiffUtil.ItemCallback<ListTileModel>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull ListTileModel oldItem, @NonNull ListTileModel newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull ListTileModel oldItem, @NonNull ListTileModel newItem) {
+            return ListTileModel.diff(oldItem, newItem) == 0;
+        }
+
+        @Override
+        public Object getChangePayload(@NonNull ListTileModel oldItem, @NonNull ListTileModel newItem) {
+            return ListTileModel.diff(oldItem, newItem);
+        }
+    };
+
+    @LayoutRes
+    private final int layoutRes;
+    @Nullable
+    private ListTileFactory tileFactory;
+
+    /**
+     * @param layoutRes 列表项布局，根布局必须是ListTile，缺少的槽位在绑定时按需创建
+     */
+    public ListTileAdapter(@LayoutRes int layoutRes) {
+        super(DIFF_CALLBACK);
+        this.layoutRes = layoutRes;
+    }
+
+    /**
+     * @param diffExecutor 计算差异的后台线程Executor
+     */
+    public ListTileAdapter(@LayoutRes int layoutRes, @NonNull Executor diffExecutor) {
+        super(new AsyncDifferConfig.Builder<>(DIFF_CALLBACK).setBackgroundThreadExecutor(diffExecutor).build());
+        this.layoutRes = layoutRes;
+    }
+
+    /**
+     * 设置创建列表项的工厂，例如构建时生成的代码，工厂不支持当前布局时仍然通过inflate创建
+     */
+    public void setTileFactory(@Nullable ListTileFactory tileFactory) {
+        this.tileFactory = tileFactory;
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        ListTile tile = tileFactory != null ? tileFactory.createTile(parent.getContext(), layoutRes) : null;
+        if (tile != null) {
+            return new ViewHolder(tile);
+        }
+
+        View view = LayoutInflater.from(parent.getContext()).inflate(layoutRes, parent, false);
+        if (!(view instanceof ListTile)) {
+            throw new IllegalArgumentException("The root view of the layout must be a ListTile!");
+        }
+        return new ViewHolder((ListTile) view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        holder.bind(getItem(position), ListTileModel.CHANGED_ALL);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+
+        // 多次更新合并后可能有多个payload
+        int changed = 0;
+        for (int i = 0, size = payloads.size(); i < size; i++) {
+            Object payload = payloads.get(i);
+            changed |= payload instanceof Integer ? (Integer) payload : ListTileModel.CHANGED_ALL;
+        }
+        holder.bind(getItem(position), changed);
+    }
+
+    public static class ViewHolder extends RecyclerView.ViewHolder {
+        private final ListTile tile;
+
+        public ViewHolder(@NonNull ListTile tile) {
+            super(tile);
+            this.tile = tile;
+        }
+
+        @NonNull
+        public ListTile getTile() {
+            return tile;
+        }
+
+        /**
+         * 只绑定发生变化的槽位
+         *
+         * @param changed 变化标记的组合，参见{@link ListTileModel#CHANGED_ALL}
+         */
+        public void bind(@NonNull ListTileModel model, int changed) {
+            ListTile.Editor editor = tile.edit();
+            // 图片为0或文本为null时隐藏对应的槽位，复用的ListTile不会残留上一个列表项的内容
+            if ((changed & ListTileModel.CHANGED_LEADING) != 0) {
+                editor.leading(model.getLeading());
+            }
+            if ((changed & ListTileModel.CHANGED_TITLE) != 0) {
+                editor.title(model.getTitle());
+            }
+            if ((changed & ListTileModel.CHANGED_SUBTITLE) != 0) {
+                editor.subtitle(model.getSubtitle());
+            }
+            if ((changed & ListTileModel.CHANGED_EXTRA) != 0) {
+                if (model.getExtraImage() != 0) {
+                    editor.extraImage(model.getExtraImage());
+                } else {
+                    editor.extra(model.getExtra());
+                }
+            }
+            if ((changed & ListTileModel.CHANGED_TRAILING) != 0) {
+                editor.trailing(model.getTrailing());
+            }
+            editor.apply();
+        }
+    }
+}
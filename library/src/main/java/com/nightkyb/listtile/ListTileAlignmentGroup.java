@@ -0,0 +1,129 @@
+package com.nightkyb.listtile;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Px;
+import androidx.annotation.UiThread;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 多个ListTile共享trailing列和extra列的宽度，使设置页、详情页等表格中各行的extra对齐成一列。
+ * <p>
+ * 每个成员测量时上报自身extra和trailing的宽度，对齐组只维护各列的最大值，成员按最大值占用空间，不会重复测量其他成员。
+ * 某个成员的内容变化后只有它自己重新测量，列宽因此改变时其他成员只重新计算位置，子View或文本命中各自的测量缓存。
+ * <p>
+ * 只统计已经attach的成员，RecyclerView中列宽随当前显示的列表项变化。对齐组持有成员的引用，不再使用时调用{@link #leave(ListTile)}。
+ *
+ * @author nightkyb
+ */
+@UiThread
+public final class ListTileAlignmentGroup {
+    /**
+     * 成员没有对应槽位或尚未测量时上报的宽度
+     */
+    static final int NO_WIDTH = -1;
+
+    private final List<ListTile> members = new ArrayList<>();
+    @Px
+    private int trailingColumnWidth;
+    @Px
+    private int extraColumnWidth;
+
+    /**
+     * 加入对齐组，已经加入其他对齐组时会先离开
+     */
+    public void join(@NonNull ListTile tile) {
+        tile.setAlignmentGroup(this);
+    }
+
+    /**
+     * 离开对齐组，恢复为独立测量
+     */
+    public void leave(@NonNull ListTile tile) {
+        if (tile.getAlignmentGroup() == this) {
+            tile.setAlignmentGroup(null);
+        }
+    }
+
+    public int size() {
+        return members.size();
+    }
+
+    /**
+     * 当前trailing列的宽度，不包括间距
+     */
+    @Px
+    public int getTrailingColumnWidth() {
+        return trailingColumnWidth;
+    }
+
+    /**
+     * 当前extra列的宽度，不包括间距
+     */
+    @Px
+    public int getExtraColumnWidth() {
+        return extraColumnWidth;
+    }
+
+    void add(@NonNull ListTile tile) {
+        members.add(tile);
+    }
+
+    void remove(@NonNull ListTile tile) {
+        if (members.remove(tile)) {
+            update(tile, tile.getAlignedTrailingWidth(), tile.getAlignedExtraWidth(), NO_WIDTH, NO_WIDTH);
+        }
+    }
+
+    /**
+     * 成员上报的宽度发生变化：变宽时直接更新列宽，原本最宽的成员变窄时才重新统计所有成员
+     *
+     * @param tile 发生变化的成员，不会收到列宽变化的通知
+     */
+    void update(@NonNull ListTile tile, @Px int oldTrailing, @Px int oldExtra, @Px int trailing, @Px int extra) {
+        int trailingWidth = trailingColumnWidth;
+        if (trailing >= trailingWidth) {
+            trailingWidth = trailing;
+        } else if (oldTrailing == trailingWidth) {
+            trailingWidth = computeTrailingWidth();
+        }
+        int extraWidth = extraColumnWidth;
+        if (extra >= extraWidth) {
+            extraWidth = extra;
+        } else if (oldExtra == extraWidth) {
+            extraWidth = computeExtraWidth();
+        }
+
+        if (trailingWidth == trailingColumnWidth && extraWidth == extraColumnWidth) {
+            return;
+        }
+        trailingColumnWidth = trailingWidth;
+        extraColumnWidth = extraWidth;
+
+        for (int i = 0, size = members.size(); i < size; i++) {
+            ListTile other = members.get(i);
+            if (other != tile) {
+                other.onAlignmentChanged();
+            }
+        }
+    }
+
+    @Px
+    private int computeTrailingWidth() {
+        int width = 0;
+        for (int i = 0, size = members.size(); i < size; i++) {
+            width = Math.max(width, members.get(i).getAlignedTrailingWidth());
+        }
+        return width;
+    }
+
+    @Px
+    private int computeExtraWidth() {
+        int width = 0;
+        for (int i = 0, size = members.size(); i < size; i++) {
+            width = Math.max(width, members.get(i).getAlignedExtraWidth());
+        }
+        return width;
+    }
+}
@@ -0,0 +1,22 @@
+package com.nightkyb.listtile;
+
+import android.content.Context;
+
+import androidx.annotation.LayoutRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * 不经过LayoutInflater直接创建ListTile，通常由{@code codegen.gradle}在构建时根据布局生成，
+ * 生成的代码通过{@link ListTileStyle.Builder}和{@link ListTile#ListTile(Context, ListTileStyle)}创建ListTile，运行时不再解析XML。
+ *
+ * @author nightkyb
+ */
+public interface ListTileFactory {
+    /**
+     * @param layoutRes 根布局为ListTile的布局
+     * @return 不支持该布局时返回null，调用方改为inflate
+     */
+    @Nullable
+    ListTile createTile(@NonNull Context context, @LayoutRes int layoutRes);
+}
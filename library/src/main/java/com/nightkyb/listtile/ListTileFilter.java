@@ -0,0 +1,319 @@
+package com.nightkyb.listtile;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.text.SpannableString;
+import android.text.Spanned;
+import android.text.style.ForegroundColorSpan;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 在后台线程按关键字过滤{@link ListTileModel}，并为title和subtitle中匹配的部分添加高亮。
+ * <pre>
+ * filter = new ListTileFilter(adapter, highlightColor);
+ * filter.setModels(contacts);
+ *
+ * // TextWatcher.afterTextChanged()
+ * filter.filter(editable);
+ * </pre>
+ * 匹配不区分大小写。新的关键字包含上一次已完成的关键字时（例如继续输入），只在上一次的结果中查找，不再遍历全部数据；
+ * 新的过滤开始后，尚未完成的过滤会在下一次检查时退出，结果不会发布。
+ * <p>
+ * 结果通过{@link ListTileAdapter#submitList(List)}发布，DiffUtil在后台计算差异，
+ * 只有进出结果集或高亮位置变化的列表项会重新绑定，并且只重新绑定title和subtitle。
+ *
+ * @author nightkyb
+ */
+@MainThread
+public final class ListTileFilter {
+    /**
+     * 每处理多少个列表项检查一次是否已被取消
+     */
+    private static final int CANCEL_CHECK_INTERVAL = 256;
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(@NonNull Runnable r) {
+            Thread thread = new Thread(r, "ListTile-filter");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    /**
+     * 过滤结果的回调，始终在主线程
+     */
+    public interface Callback {
+        /**
+         * @param query  规范化后的关键字（去掉首尾空白并转为小写）
+         * @param models 过滤结果，关键字为空时为全部数据
+         */
+        void onFiltered(@NonNull String query, @NonNull List<ListTileModel> models);
+    }
+
+    @NonNull
+    private final Executor executor;
+    @NonNull
+    private final Callback callback;
+    /**
+     * 所有高亮共用一个Span实例，同一位置的高亮前后两次生成的文本在{@link ListTileModel#textEquals}中相等（包括API 28以下），
+     * DiffUtil不会因此重新绑定
+     */
+    @NonNull
+    private final ForegroundColorSpan highlightSpan;
+    /**
+     * 每次过滤或修改数据时递增，后台任务据此判断是否已经过期
+     */
+    private final AtomicInteger generation = new AtomicInteger();
+
+    @NonNull
+    private Source source = new Source(Collections.<ListTileModel>emptyList());
+    @NonNull
+    private String query = "";
+    /**
+     * 最近一次发布的结果，作为继续输入时缩小查找范围的依据
+     */
+    @Nullable
+    private Result result;
+
+    /**
+     * 在内置的后台线程过滤，结果提交到adapter
+     */
+    public ListTileFilter(@NonNull final ListTileAdapter adapter, @ColorInt int highlightColor) {
+        this(highlightColor, EXECUTOR, new Callback() {
+            @Override
+            public void onFiltered(@NonNull String query, @NonNull List<ListTileModel> models) {
+                adapter.submitList(models);
+            }
+        });
+    }
+
+    /**
+     * @param executor 执行过滤的Executor，不能是主线程，最好是单线程，避免过期的任务与新任务争抢
+     */
+    public ListTileFilter(@ColorInt int highlightColor, @NonNull Executor executor, @NonNull Callback callback) {
+        this.highlightSpan = new ForegroundColorSpan(highlightColor);
+        this.executor = executor;
+        this.callback = callback;
+    }
+
+    /**
+     * 设置全部数据，并按当前关键字重新过滤
+     */
+    public void setModels(@NonNull List<ListTileModel> models) {
+        source = new Source(models);
+        result = null;
+        submit();
+    }
+
+    /**
+     * 按关键字过滤，关键字为空时显示全部数据。与当前关键字相同时忽略
+     */
+    public void filter(@Nullable CharSequence query) {
+        String normalized = normalize(query);
+        if (normalized.equals(this.query)) {
+            return;
+        }
+        this.query = normalized;
+        submit();
+    }
+
+    /**
+     * 取消尚未完成的过滤
+     */
+    public void cancel() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * 当前的关键字，可能还没有过滤完成
+     */
+    @NonNull
+    public String getQuery() {
+        return query;
+    }
+
+    private void submit() {
+        final int gen = generation.incrementAndGet();
+        final Source source = this.source;
+        final String query = this.query;
+        // 上一次的结果只在数据没有变化，并且新关键字包含上一次的关键字时可以复用
+        final int[] candidates = result != null && result.source == source && query.contains(result.query)
+                ? result.indices : null;
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final Result filtered = filter(gen, source, query, candidates);
+                if (filtered == null) {
+                    return;
+                }
+                MAIN_HANDLER.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (gen == generation.get()) {
+                            result = filtered;
+                            callback.onFiltered(filtered.query, filtered.models);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 在后台线程执行
+     *
+     * @param candidates 需要查找的列表项在全部数据中的位置，为null时查找全部数据
+     * @return 已被取消时返回null
+     */
+    @Nullable
+    private Result filter(int gen, @NonNull Source source, @NonNull String query, @Nullable int[] candidates) {
+        if (gen != generation.get()) {
+            return null;
+        }
+        ListTileModel[] models = source.models;
+        if (query.isEmpty()) {
+            return new Result(source, query, null, Collections.unmodifiableList(Arrays.asList(models)));
+        }
+
+        source.ensureKeys();
+        int count = candidates != null ? candidates.length : models.length;
+        int[] indices = new int[count];
+        List<ListTileModel> matched = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (i % CANCEL_CHECK_INTERVAL == 0 && gen != generation.get()) {
+                return null;
+            }
+
+            int index = candidates != null ? candidates[i] : i;
+            ListTileModel model = models[index];
+            int titleStart = indexOf(model.getTitle(), source.titleKeys[index], query);
+            int subtitleStart = indexOf(model.getSubtitle(), source.subtitleKeys[index], query);
+            if (titleStart < 0 && subtitleStart < 0) {
+                continue;
+            }
+
+            indices[matched.size()] = index;
+            matched.add(highlight(model, titleStart, subtitleStart, query.length()));
+        }
+
+        return new Result(source, query, Arrays.copyOf(indices, matched.size()), Collections.unmodifiableList(matched));
+    }
+
+    /**
+     * 为匹配的部分添加高亮，没有匹配的文本保持原来的实例
+     */
+    @NonNull
+    private ListTileModel highlight(@NonNull ListTileModel model, int titleStart, int subtitleStart, int length) {
+        ListTileModel.Builder builder = model.buildUpon();
+        if (titleStart >= 0) {
+            builder.title(highlight(model.getTitle(), titleStart, length));
+        }
+        if (subtitleStart >= 0) {
+            builder.subtitle(highlight(model.getSubtitle(), subtitleStart, length));
+        }
+        return builder.build();
+    }
+
+    @NonNull
+    private CharSequence highlight(@NonNull CharSequence text, int start, int length) {
+        SpannableString spannable = new SpannableString(text);
+        spannable.setSpan(highlightSpan, start, start + length, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        return spannable;
+    }
+
+    /**
+     * @param key text转为小写后的结果
+     * @return 匹配的起始位置，不匹配时返回-1
+     */
+    private static int indexOf(@Nullable CharSequence text, @Nullable String key, @NonNull String query) {
+        if (text == null || key == null) {
+            return -1;
+        }
+        if (key.length() == text.length()) {
+            return key.indexOf(query);
+        }
+
+        // 个别字符转为小写后长度会变化，位置无法对应原文本，只能逐个位置比较
+        String string = text.toString();
+        for (int i = 0, end = string.length() - query.length(); i <= end; i++) {
+            if (string.regionMatches(true, i, query, 0, query.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @NonNull
+    private static String normalize(@Nullable CharSequence query) {
+        return query == null ? "" : query.toString().trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 一份数据及其用于匹配的小写文本，小写文本在第一次过滤时在后台线程生成
+     */
+    private static final class Source {
+        @NonNull
+        final ListTileModel[] models;
+        String[] titleKeys;
+        String[] subtitleKeys;
+
+        Source(@NonNull List<ListTileModel> models) {
+            this.models = models.toArray(new ListTileModel[0]);
+        }
+
+        synchronized void ensureKeys() {
+            if (titleKeys != null) {
+                return;
+            }
+            String[] titles = new String[models.length];
+            String[] subtitles = new String[models.length];
+            for (int i = 0; i < models.length; i++) {
+                titles[i] = models[i].getTitle().toString().toLowerCase(Locale.ROOT);
+                CharSequence subtitle = models[i].getSubtitle();
+                subtitles[i] = subtitle != null ? subtitle.toString().toLowerCase(Locale.ROOT) : null;
+            }
+            titleKeys = titles;
+            subtitleKeys = subtitles;
+        }
+    }
+
+    private static final class Result {
+        @NonNull
+        final Source source;
+        @NonNull
+        final String query;
+        /**
+         * 结果中的列表项在全部数据中的位置，为null表示全部数据
+         */
+        @Nullable
+        final int[] indices;
+        @NonNull
+        final List<ListTileModel> models;
+
+        Result(@NonNull Source source, @NonNull String query, @Nullable int[] indices, @NonNull List<ListTileModel> models) {
+            this.source = source;
+            this.query = query;
+            this.indices = indices;
+            this.models = models;
+        }
+    }
+}
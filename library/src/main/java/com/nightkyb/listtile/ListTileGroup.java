@@ -0,0 +1,472 @@
+package com.nightkyb.listtile;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.content.res.XmlResourceParser;
+import android.graphics.Rect;
+import android.util.AttributeSet;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+import android.util.TypedValue;
+import android.util.Xml;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.DrawableRes;
+import androidx.annotation.IdRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.Px;
+import androidx.annotation.XmlRes;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按需创建ListTile的纵向容器，用于放在ScrollView中展示大量在XML中声明的ListTile，例如设置页、关于页。
+ * <p>
+ * ListTile在XML资源（res/xml）中声明，通过{@code lt_tiles}属性或{@link #setTiles(int)}设置：
+ * <pre>{@code
+ * <ListTileGroup>
+ *     <ListTile android:id="@+id/version" app:lt_title="版本" app:lt_extra="1.0.0" ... />
+ *     ...
+ * </ListTileGroup>
+ * }</pre>
+ * 解析时只保存每个ListTile的样式快照，不创建View，只有进入可见区域附近的ListTile才会被创建，
+ * 离开后回收并通过{@link ListTile#applyStyle(ListTileStyle)}复用。未显示的ListTile高度按相同形态的ListTile估算。
+ * <p>
+ * 已经创建的ListTile可以通过{@link #findViewById(int)}或{@link #findTile(int)}获取，
+ * 动态内容和点击事件在{@link OnTileBindListener}中设置，ListTile每次被创建或复用时都会回调。
+ *
+ * @author nightkyb
+ */
+public class ListTileGroup extends ViewGroup {
+    /**
+     * 按照属性ID升序排列，obtainStyledAttributes要求有序
+     */
+    private static final int[] VIEW_ATTRS = {
+            android.R.attr.background,
+            android.R.attr.padding,
+            android.R.attr.paddingLeft,
+            android.R.attr.paddingTop,
+            android.R.attr.paddingRight,
+            android.R.attr.paddingBottom,
+            android.R.attr.minHeight,
+            android.R.attr.paddingStart,
+            android.R.attr.paddingEnd
+    };
+    private static final int INDEX_BACKGROUND = 0;
+    private static final int INDEX_PADDING = 1;
+    private static final int INDEX_PADDING_LEFT = 2;
+    private static final int INDEX_PADDING_TOP = 3;
+    private static final int INDEX_PADDING_RIGHT = 4;
+    private static final int INDEX_PADDING_BOTTOM = 5;
+    private static final int INDEX_MIN_HEIGHT = 6;
+    private static final int INDEX_PADDING_START = 7;
+    private static final int INDEX_PADDING_END = 8;
+
+    private final List<TileSpec> specs = new ArrayList<>();
+    /**
+     * 已经测量过的高度，未测量时为-1
+     */
+    private int[] heights = new int[0];
+    /**
+     * 每个ListTile的顶部位置，最后一个元素为内容底部
+     */
+    private int[] offsets = new int[1];
+    /**
+     * 按形态记录的高度，用于估算未测量的ListTile
+     */
+    private final SparseIntArray estimatedHeights = new SparseIntArray();
+
+    private final SparseArray<ListTile> activeTiles = new SparseArray<>();
+    private final List<ListTile> scrapTiles = new ArrayList<>();
+
+    private final Rect visibleRect = new Rect();
+    private int lastWidthMeasureSpec;
+
+    @Nullable
+    private OnTileBindListener onTileBindListener;
+
+    private final ViewTreeObserver.OnScrollChangedListener scrollChangedListener = new ViewTreeObserver.OnScrollChangedListener() {
+        @Override
+        public void onScrollChanged() {
+            if (!isLayoutRequested()) {
+                fillViewport();
+            }
+        }
+    };
+
+    private final Runnable requestLayoutRunnable = new Runnable() {
+        @Override
+        public void run() {
+            requestLayout();
+        }
+    };
+
+    public ListTileGroup(Context context) {
+        this(context, null);
+    }
+
+    public ListTileGroup(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public ListTileGroup(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr, 0);
+
+        final TypedArray ta = context.obtainStyledAttributes(attrs, R.styleable.ListTileGroup, defStyleAttr, 0);
+        int tiles = ta.getResourceId(R.styleable.ListTileGroup_lt_tiles, 0);
+        ta.recycle();
+
+        if (tiles != 0) {
+            setTiles(tiles);
+        }
+    }
+
+    /**
+     * 设置ListTile的声明，移除所有已经创建的ListTile
+     *
+     * @param tiles XML资源，根元素下的每个ListTile元素对应一个ListTile
+     */
+    public void setTiles(@XmlRes int tiles) {
+        for (int i = 0, size = activeTiles.size(); i < size; i++) {
+            removeViewInLayout(activeTiles.valueAt(i));
+        }
+        activeTiles.clear();
+        scrapTiles.clear();
+        specs.clear();
+
+        final XmlResourceParser parser = getResources().getXml(tiles);
+        try {
+            int type;
+            while ((type = parser.next()) != XmlPullParser.END_DOCUMENT) {
+                if (type == XmlPullParser.START_TAG && isListTile(parser.getName())) {
+                    specs.add(new TileSpec(getContext(), Xml.asAttributeSet(parser)));
+                }
+            }
+        } catch (XmlPullParserException | IOException e) {
+            throw new IllegalArgumentException("Failed to parse tiles!", e);
+        } finally {
+            parser.close();
+        }
+
+        heights = new int[specs.size()];
+        for (int i = 0; i < heights.length; i++) {
+            heights[i] = -1;
+        }
+        offsets = new int[specs.size() + 1];
+
+        requestLayout();
+        invalidate();
+    }
+
+    private static boolean isListTile(String name) {
+        return "ListTile".equals(name) || ListTile.class.getName().equals(name);
+    }
+
+    public int getTileCount() {
+        return specs.size();
+    }
+
+    /**
+     * @return 对应的位置，不存在时返回-1
+     */
+    public int indexOfTile(@IdRes int id) {
+        for (int i = 0, size = specs.size(); i < size; i++) {
+            if (specs.get(i).id == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 获取已经创建的ListTile
+     *
+     * @return 不在可见区域附近、尚未创建时返回null
+     */
+    @Nullable
+    public ListTile findTile(@IdRes int id) {
+        int index = indexOfTile(id);
+        return index < 0 ? null : activeTiles.get(index);
+    }
+
+    /**
+     * 获取已经创建的ListTile
+     *
+     * @return 不在可见区域附近、尚未创建时返回null
+     */
+    @Nullable
+    public ListTile getTileAt(int index) {
+        return activeTiles.get(index);
+    }
+
+    /**
+     * 获取ListTile相对于ListTileGroup的顶部位置，可用于滚动到指定的ListTile
+     */
+    @Px
+    public int getTileTop(int index) {
+        return offsets[index];
+    }
+
+    public void setOnTileBindListener(@Nullable OnTileBindListener listener) {
+        onTileBindListener = listener;
+        if (listener != null) {
+            for (int i = 0, size = activeTiles.size(); i < size; i++) {
+                listener.onBindTile(activeTiles.valueAt(i), activeTiles.keyAt(i));
+            }
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        getViewTreeObserver().addOnScrollChangedListener(scrollChangedListener);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        getViewTreeObserver().removeOnScrollChangedListener(scrollChangedListener);
+        removeCallbacks(requestLayoutRunnable);
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        if (widthMeasureSpec != lastWidthMeasureSpec) {
+            // 宽度变化后之前的高度不再可靠
+            lastWidthMeasureSpec = widthMeasureSpec;
+            for (int i = 0; i < heights.length; i++) {
+                heights[i] = -1;
+            }
+            estimatedHeights.clear();
+        }
+
+        for (int i = 0, size = activeTiles.size(); i < size; i++) {
+            measureTile(activeTiles.keyAt(i), activeTiles.valueAt(i));
+        }
+        computeOffsets();
+
+        setMeasuredDimension(getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec),
+                resolveSize(offsets[specs.size()] + getPaddingBottom(), heightMeasureSpec));
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        for (int i = 0, size = activeTiles.size(); i < size; i++) {
+            layoutTile(activeTiles.keyAt(i), activeTiles.valueAt(i));
+        }
+        fillViewport();
+    }
+
+    private void measureTile(int index, @NonNull ListTile tile) {
+        int childWidthMeasureSpec = getChildMeasureSpec(lastWidthMeasureSpec,
+                getPaddingLeft() + getPaddingRight(), LayoutParams.MATCH_PARENT);
+        tile.measure(childWidthMeasureSpec, MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+
+        int height = tile.getMeasuredHeight();
+        heights[index] = height;
+        estimatedHeights.put(specs.get(index).style.shapeSignature(), height);
+    }
+
+    private void layoutTile(int index, @NonNull ListTile tile) {
+        int left = getPaddingLeft();
+        int top = offsets[index];
+        tile.layout(left, top, left + tile.getMeasuredWidth(), top + tile.getMeasuredHeight());
+    }
+
+    private void computeOffsets() {
+        int offset = getPaddingTop();
+        for (int i = 0, size = specs.size(); i < size; i++) {
+            offsets[i] = offset;
+            offset += heights[i] >= 0 ? heights[i] : estimateHeight(i);
+        }
+        offsets[specs.size()] = offset;
+    }
+
+    /**
+     * 使用相同形态的ListTile的高度估算，没有时测量一个临时的ListTile，测量后放入回收池
+     */
+    private int estimateHeight(int index) {
+        int signature = specs.get(index).style.shapeSignature();
+        int height = estimatedHeights.get(signature, -1);
+        if (height < 0) {
+            ListTile tile = obtainTile(index);
+            measureTile(index, tile);
+            height = heights[index];
+            scrapTiles.add(tile);
+        }
+        return height;
+    }
+
+    /**
+     * 创建可见区域上下各半屏范围内的ListTile，回收范围之外的ListTile
+     */
+    private void fillViewport() {
+        if (specs.isEmpty() || !getLocalVisibleRect(visibleRect)) {
+            return;
+        }
+
+        final int overscan = visibleRect.height() / 2;
+        final int top = visibleRect.top - overscan;
+        final int bottom = visibleRect.bottom + overscan;
+
+        int first = 0;
+        while (first < specs.size() - 1 && offsets[first + 1] <= top) {
+            first++;
+        }
+        int last = first;
+        while (last < specs.size() - 1 && offsets[last + 1] < bottom) {
+            last++;
+        }
+
+        for (int i = activeTiles.size() - 1; i >= 0; i--) {
+            int index = activeTiles.keyAt(i);
+            if (index < first || index > last) {
+                ListTile tile = activeTiles.valueAt(i);
+                activeTiles.remove(index);
+                removeViewInLayout(tile);
+                scrapTiles.add(tile);
+            }
+        }
+
+        boolean heightChanged = false;
+        for (int index = first; index <= last; index++) {
+            if (activeTiles.get(index) != null) {
+                continue;
+            }
+
+            ListTile tile = obtainTile(index);
+            addViewInLayout(tile, -1, generateDefaultLayoutParams(), true);
+            activeTiles.put(index, tile);
+
+            int estimatedHeight = offsets[index + 1] - offsets[index];
+            measureTile(index, tile);
+            layoutTile(index, tile);
+            heightChanged |= tile.getMeasuredHeight() != estimatedHeight;
+        }
+
+        if (heightChanged) {
+            // 估算的高度有误差，重新计算所有位置
+            removeCallbacks(requestLayoutRunnable);
+            post(requestLayoutRunnable);
+        }
+        invalidate();
+    }
+
+    /**
+     * 优先从回收池中复用布局属性相同的ListTile
+     */
+    @NonNull
+    private ListTile obtainTile(int index) {
+        TileSpec spec = specs.get(index);
+
+        ListTile tile = null;
+        for (int i = scrapTiles.size() - 1; i >= 0; i--) {
+            ListTile scrap = scrapTiles.get(i);
+            if (scrap.getStyle().hasSameLayout(spec.style)) {
+                scrapTiles.remove(i);
+                scrap.applyStyle(spec.style);
+                tile = scrap;
+                break;
+            }
+        }
+        if (tile == null) {
+            tile = new ListTile(getContext(), spec.style);
+        }
+
+        spec.applyTo(tile);
+        if (onTileBindListener != null) {
+            onTileBindListener.onBindTile(tile, index);
+        }
+        return tile;
+    }
+
+    @Override
+    protected LayoutParams generateDefaultLayoutParams() {
+        return new LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.WRAP_CONTENT);
+    }
+
+    public interface OnTileBindListener {
+        /**
+         * ListTile被创建或复用后回调，在这里设置动态内容和点击事件
+         *
+         * @param index ListTile在XML中的位置，ID通过{@link ListTile#getId()}获取
+         */
+        void onBindTile(@NonNull ListTile tile, int index);
+    }
+
+    /**
+     * XML中声明的一个ListTile：ListTile的样式快照和View本身的属性
+     */
+    private static final class TileSpec {
+        @IdRes
+        final int id;
+        @NonNull
+        final ListTileStyle style;
+        @DrawableRes
+        private final int background;
+        /**
+         * 背景为颜色字面量（例如#FFF）时的颜色，此时background为0
+         */
+        @ColorInt
+        private final int backgroundColor;
+        private final boolean hasBackgroundColor;
+        private final int paddingStart;
+        private final int paddingTop;
+        private final int paddingEnd;
+        private final int paddingBottom;
+        private final int minHeight;
+
+        TileSpec(@NonNull Context context, @NonNull AttributeSet attrs) {
+            id = attrs.getIdAttributeResourceValue(View.NO_ID);
+            style = ListTileStyle.obtain(context, attrs, R.attr.listTileStyle, ListTile.DEF_STYLE_RES);
+
+            final TypedArray ta = context.obtainStyledAttributes(attrs, VIEW_ATTRS, R.attr.listTileStyle, ListTile.DEF_STYLE_RES);
+            final TypedValue value = new TypedValue();
+            if (ta.getValue(INDEX_BACKGROUND, value) && value.resourceId == 0
+                    && value.type >= TypedValue.TYPE_FIRST_COLOR_INT && value.type <= TypedValue.TYPE_LAST_COLOR_INT) {
+                background = 0;
+                backgroundColor = value.data;
+                hasBackgroundColor = true;
+            } else {
+                background = ta.getResourceId(INDEX_BACKGROUND, 0);
+                backgroundColor = 0;
+                hasBackgroundColor = false;
+            }
+            int padding = ta.getDimensionPixelSize(INDEX_PADDING, -1);
+            if (padding >= 0) {
+                paddingStart = paddingTop = paddingEnd = paddingBottom = padding;
+            } else {
+                paddingStart = ta.getDimensionPixelSize(INDEX_PADDING_START,
+                        ta.getDimensionPixelSize(INDEX_PADDING_LEFT, 0));
+                paddingTop = ta.getDimensionPixelSize(INDEX_PADDING_TOP, 0);
+                paddingEnd = ta.getDimensionPixelSize(INDEX_PADDING_END,
+                        ta.getDimensionPixelSize(INDEX_PADDING_RIGHT, 0));
+                paddingBottom = ta.getDimensionPixelSize(INDEX_PADDING_BOTTOM, 0);
+            }
+            minHeight = ta.getDimensionPixelSize(INDEX_MIN_HEIGHT, 0);
+            ta.recycle();
+        }
+
+        void applyTo(@NonNull ListTile tile) {
+            tile.setId(id);
+            tile.setPaddingRelative(paddingStart, paddingTop, paddingEnd, paddingBottom);
+            tile.setMinimumHeight(minHeight);
+            if (background != 0) {
+                tile.setBackgroundResource(background);
+            } else if (hasBackgroundColor) {
+                tile.setBackgroundColor(backgroundColor);
+            } else {
+                tile.setBackground(null);
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.nightkyb.listtile;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.Px;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ListTile图片槽位的异步加载器，由{@link ListTile#loadLeading(Uri)}等方法使用。
+ * <p>
+ * 图片在后台线程解码，并按照槽位尺寸（{@code lt_leading_size}、{@code lt_extra_size}）降采样，
+ * 解码结果保存在进程内共享的内存LRU缓存中，缓存上限为最大可用内存的1/8，内存不足时清空。
+ *
+ * @author nightkyb
+ */
+public final class ListTileImageLoader {
+    // 可以加载图片的槽位
+    static final int SLOT_LEADING = 0;
+    static final int SLOT_EXTRA = 1;
+
+    private static final int THREAD_COUNT = 2;
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(THREAD_COUNT, new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(@NonNull Runnable r) {
+            Thread thread = new Thread(r, "ListTile-image-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        }
+    });
+
+    private static final LruCache<String, Bitmap> CACHE =
+            new LruCache<String, Bitmap>((int) Math.min(Runtime.getRuntime().maxMemory() / 8, Integer.MAX_VALUE)) {
+                @Override
+                protected int sizeOf(String key, Bitmap value) {
+                    return value.getAllocationByteCount();
+                }
+            };
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private static boolean callbacksRegistered;
+
+    private static final ComponentCallbacks2 CALLBACKS = new ComponentCallbacks2() {
+        @Override
+        public void onConfigurationChanged(@NonNull Configuration newConfig) {
+        }
+
+        @Override
+        public void onLowMemory() {
+            clearMemoryCache();
+        }
+
+        @Override
+        public void onTrimMemory(int level) {
+            if (level >= TRIM_MEMORY_BACKGROUND) {
+                clearMemoryCache();
+            }
+        }
+    };
+
+    private ListTileImageLoader() {
+    }
+
+    /**
+     * 清空内存缓存
+     */
+    public static void clearMemoryCache() {
+        CACHE.evictAll();
+    }
+
+    /**
+     * 从内存缓存中获取，不会触发解码
+     */
+    @Nullable
+    static Bitmap getCached(@NonNull String key) {
+        return CACHE.get(key);
+    }
+
+    @NonNull
+    static String key(@NonNull Object source, @Px int size) {
+        return source + "#" + size;
+    }
+
+    /**
+     * 在后台线程加载图片，完成后在主线程回调{@link ListTile#onImageLoaded(Request, Bitmap)}
+     *
+     * @param source {@link Uri}、{@link File}或{@link Integer}类型的Drawable资源
+     * @param size   目标尺寸，为0时不降采样
+     */
+    @NonNull
+    static Request load(@NonNull ListTile tile, int slot, @NonNull Object source, @Px int size) {
+        Context appContext = tile.getContext().getApplicationContext();
+        if (!callbacksRegistered && appContext != null) {
+            appContext.registerComponentCallbacks(CALLBACKS);
+            callbacksRegistered = true;
+        }
+
+        Request request = new Request(tile, slot, source, size);
+        request.future = EXECUTOR.submit(request);
+        return request;
+    }
+
+    /**
+     * 计算不小于目标尺寸的最大2的幂采样率
+     */
+    static int calculateInSampleSize(int width, int height, @Px int size) {
+        int inSampleSize = 1;
+        if (size > 0) {
+            while (width / (inSampleSize * 2) >= size && height / (inSampleSize * 2) >= size) {
+                inSampleSize *= 2;
+            }
+        }
+        return inSampleSize;
+    }
+
+    /**
+     * 一次加载请求，ListTile重新绑定时通过{@link #cancel()}取消
+     */
+    static final class Request implements Runnable {
+        final int slot;
+        @NonNull
+        final Object source;
+        @NonNull
+        final String key;
+        @Px
+        private final int size;
+        @NonNull
+        private final Context context;
+        @NonNull
+        private final WeakReference<ListTile> tileRef;
+        private volatile boolean cancelled;
+        @Nullable
+        private Future<?> future;
+
+        Request(@NonNull ListTile tile, int slot, @NonNull Object source, @Px int size) {
+            this.slot = slot;
+            this.source = source;
+            this.key = key(source, size);
+            this.size = size;
+            this.context = tile.getContext().getApplicationContext() != null
+                    ? tile.getContext().getApplicationContext() : tile.getContext();
+            this.tileRef = new WeakReference<>(tile);
+        }
+
+        void cancel() {
+            cancelled = true;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+
+            Bitmap cached = CACHE.get(key);
+            final Bitmap bitmap = cached != null ? cached : decode();
+            if (bitmap != null && cached == null) {
+                CACHE.put(key, bitmap);
+            }
+
+            if (!cancelled) {
+                MAIN_HANDLER.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        ListTile tile = tileRef.get();
+                        if (!cancelled && tile != null) {
+                            tile.onImageLoaded(Request.this, bitmap);
+                        }
+                    }
+                });
+            }
+        }
+
+        /**
+         * 先只解码尺寸，再按槽位尺寸降采样解码
+         *
+         * @return 解码失败或资源不是位图（例如矢量图）时返回null
+         */
+        @Nullable
+        private Bitmap decode() {
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inJustDecodeBounds = true;
+            decode(options);
+            if (cancelled || options.outWidth <= 0 || options.outHeight <= 0) {
+                return null;
+            }
+
+            options.inJustDecodeBounds = false;
+            options.inSampleSize = calculateInSampleSize(options.outWidth, options.outHeight, size);
+            return decode(options);
+        }
+
+        @Nullable
+        private Bitmap decode(@NonNull BitmapFactory.Options options) {
+            if (source instanceof File) {
+                return BitmapFactory.decodeFile(((File) source).getPath(), options);
+            }
+            if (source instanceof Integer) {
+                // 需要降采样时不再按屏幕密度缩放，采样率基于资源的原始尺寸计算
+                options.inScaled = size == 0;
+                return BitmapFactory.decodeResource(context.getResources(), (Integer) source, options);
+            }
+
+            InputStream in = null;
+            try {
+                in = context.getContentResolver().openInputStream((Uri) source);
+                return in == null ? null : BitmapFactory.decodeStream(in, null, options);
+            } catch (IOException | SecurityException e) {
+                return null;
+            } finally {
+                if (in != null) {
+                    try {
+                        in.close();
+                    } catch (IOException ignored) {
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.nightkyb.listtile;
+
+import android.os.Trace;
+
+import androidx.annotation.IntDef;
+import androidx.annotation.NonNull;
+
+import java.lang.annotation.Retention;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static java.lang.annotation.RetentionPolicy.SOURCE;
+
+/**
+ * 进程内共享的ListTile性能统计，记录构造、测量、布局和批量修改的次数与耗时分布。
+ * <p>
+ * 默认关闭，关闭时每次埋点只有一次volatile读取。通过{@link #setEnabled(boolean)}开启后，
+ * 构造、onMeasure、onLayout和内容变化后{@link ListTile.Editor#apply()}中的重新测量和布局
+ * 会包裹在{@link Trace}片段中（调用方在edit()和apply()之间的耗时不在其中），可以在Systrace/Perfetto中查看；
+ * 统计结果通过{@link #snapshot()}获取，通过{@link #reset()}清零。
+ *
+ * @author nightkyb
+ */
+public final class ListTileMetrics {
+    @IntDef({CONSTRUCT, MEASURE, LAYOUT, EDIT, MEASURE_CACHE_HIT, RELAYOUT_IN_PLACE, REQUEST_LAYOUT, REFRESH})
+    @Retention(SOURCE)
+    public @interface Event {
+    }
+
+    // 带耗时分布的事件
+    /**
+     * 构造ListTile，包括解析属性和创建槽位
+     */
+    public static final int CONSTRUCT = 0;
+    /**
+     * 未命中测量缓存的onMeasure
+     */
+    public static final int MEASURE = 1;
+    public static final int LAYOUT = 2;
+    /**
+     * 内容变化后{@link ListTile.Editor#apply()}中的重新测量和布局，不包括调用方在edit()和apply()之间的耗时
+     */
+    public static final int EDIT = 3;
+
+    // 只计数的事件
+    /**
+     * 命中测量缓存的onMeasure
+     */
+    public static final int MEASURE_CACHE_HIT = 4;
+    /**
+     * 内容变化后尺寸不变，只重新布局ListTile自身
+     */
+    public static final int RELAYOUT_IN_PLACE = 5;
+    /**
+     * 内容变化后向父布局请求重新布局
+     */
+    public static final int REQUEST_LAYOUT = 6;
+    /**
+     * {@link ListTile#refresh()}的调用次数
+     */
+    public static final int REFRESH = 7;
+
+    private static final int EVENT_COUNT = 8;
+
+    private static final String[] NAMES = {
+            "ListTile#<init>", "ListTile#onMeasure", "ListTile#onLayout", "ListTile#apply",
+            "ListTile#measureCacheHit", "ListTile#relayoutInPlace", "ListTile#requestLayout", "ListTile#refresh"
+    };
+
+    /**
+     * 耗时分布的桶数，第i个桶统计[2^i, 2^(i+1))微秒的次数，第0个桶包括小于1微秒的情况，最后一个桶包括更长的耗时
+     */
+    public static final int BUCKET_COUNT = 16;
+
+    /**
+     * {@link #begin(int)}在统计关闭时的返回值
+     */
+    static final long NOT_STARTED = Long.MIN_VALUE;
+
+    private static volatile boolean enabled;
+
+    private static final AtomicLongArray COUNTS = new AtomicLongArray(EVENT_COUNT);
+    private static final AtomicLongArray TOTAL_NANOS = new AtomicLongArray(EVENT_COUNT);
+    private static final AtomicLongArray HISTOGRAMS = new AtomicLongArray(EVENT_COUNT * BUCKET_COUNT);
+    private static final AtomicInteger REFRESHES_IN_FLIGHT = new AtomicInteger();
+
+    private ListTileMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        ListTileMetrics.enabled = enabled;
+    }
+
+    /**
+     * 获取当前统计结果的快照
+     */
+    @NonNull
+    public static Snapshot snapshot() {
+        long[] counts = new long[EVENT_COUNT];
+        long[] totalNanos = new long[EVENT_COUNT];
+        long[] histograms = new long[EVENT_COUNT * BUCKET_COUNT];
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            counts[i] = COUNTS.get(i);
+            totalNanos[i] = TOTAL_NANOS.get(i);
+        }
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = HISTOGRAMS.get(i);
+        }
+        return new Snapshot(counts, totalNanos, histograms, REFRESHES_IN_FLIGHT.get());
+    }
+
+    /**
+     * 清零所有统计结果，尚未执行的refresh数量不受影响
+     */
+    public static void reset() {
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            COUNTS.set(i, 0);
+            TOTAL_NANOS.set(i, 0);
+        }
+        for (int i = 0, length = HISTOGRAMS.length(); i < length; i++) {
+            HISTOGRAMS.set(i, 0);
+        }
+    }
+
+    /**
+     * 开始一个带耗时的事件
+     *
+     * @return 开始时间，统计关闭时返回{@link #NOT_STARTED}
+     */
+    static long begin(@Event int event) {
+        if (!enabled) {
+            return NOT_STARTED;
+        }
+        Trace.beginSection(NAMES[event]);
+        return System.nanoTime();
+    }
+
+    /**
+     * 结束{@link #begin(int)}开始的事件，与统计当前是否开启无关，保证Trace片段成对出现
+     */
+    static void end(@Event int event, long start) {
+        if (start == NOT_STARTED) {
+            return;
+        }
+        Trace.endSection();
+
+        long nanos = System.nanoTime() - start;
+        COUNTS.incrementAndGet(event);
+        TOTAL_NANOS.addAndGet(event, nanos);
+        HISTOGRAMS.incrementAndGet(event * BUCKET_COUNT + bucketOf(nanos));
+    }
+
+    /**
+     * 记录一次只计数的事件
+     */
+    static void count(@Event int event) {
+        if (enabled) {
+            COUNTS.incrementAndGet(event);
+        }
+    }
+
+    /**
+     * refresh已经post但尚未执行
+     *
+     * @return 是否计入统计，为true时执行后需要调用{@link #onRefreshDone()}
+     */
+    static boolean onRefreshPosted() {
+        if (!enabled) {
+            return false;
+        }
+        COUNTS.incrementAndGet(REFRESH);
+        REFRESHES_IN_FLIGHT.incrementAndGet();
+        return true;
+    }
+
+    static void onRefreshDone() {
+        REFRESHES_IN_FLIGHT.decrementAndGet();
+    }
+
+    static int bucketOf(long nanos) {
+        long micros = nanos / 1000;
+        if (micros <= 1) {
+            return 0;
+        }
+        return Math.min(BUCKET_COUNT - 1, 63 - Long.numberOfLeadingZeros(micros));
+    }
+
+    /**
+     * 统计结果的不可变快照
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long[] totalNanos;
+        private final long[] histograms;
+        private final int refreshesInFlight;
+
+        Snapshot(long[] counts, long[] totalNanos, long[] histograms, int refreshesInFlight) {
+            this.counts = counts;
+            this.totalNanos = totalNanos;
+            this.histograms = histograms;
+            this.refreshesInFlight = refreshesInFlight;
+        }
+
+        public long getCount(@Event int event) {
+            return counts[event];
+        }
+
+        /**
+         * 事件的总耗时，只计数的事件返回0
+         */
+        public long getTotalNanos(@Event int event) {
+            return totalNanos[event];
+        }
+
+        /**
+         * 事件的耗时分布，参见{@link #BUCKET_COUNT}
+         */
+        @NonNull
+        public long[] getHistogram(@Event int event) {
+            long[] histogram = new long[BUCKET_COUNT];
+            System.arraycopy(histograms, event * BUCKET_COUNT, histogram, 0, BUCKET_COUNT);
+            return histogram;
+        }
+
+        /**
+         * 根据耗时分布估算百分位耗时，返回所在桶的上限
+         *
+         * @param percentile 0~100
+         * @return 微秒，没有记录时返回0
+         */
+        public long getPercentileMicros(@Event int event, double percentile) {
+            long total = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                total += histograms[event * BUCKET_COUNT + i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+
+            long target = (long) Math.ceil(total * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += histograms[event * BUCKET_COUNT + i];
+                if (seen >= target) {
+                    return 1L << (i + 1);
+                }
+            }
+            return 1L << BUCKET_COUNT;
+        }
+
+        /**
+         * 已经post但尚未执行的refresh数量
+         */
+        public int getRefreshesInFlight() {
+            return refreshesInFlight;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("ListTileMetrics{");
+            for (int i = 0; i < EVENT_COUNT; i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(NAMES[i]).append('=').append(counts[i]);
+                if (totalNanos[i] > 0) {
+                    sb.append(" (p50=").append(getPercentileMicros(i, 50))
+                            .append("us, p99=").append(getPercentileMicros(i, 99)).append("us)");
+                }
+            }
+            return sb.append(", refreshesInFlight=").append(refreshesInFlight).append('}').toString();
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.nightkyb.listtile;
+
+import android.text.Spanned;
+import android.text.TextUtils;
+
+import androidx.annotation.DrawableRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Objects;
+
+/**
+ * ListTile的不可变数据模型，配合{@link ListTileAdapter}使用。
+ * <p>
+ * 图片使用资源ID表示，图片为0或文本为null时隐藏ListTile中对应的槽位，因此不同形态的列表项可以共用同一种布局。
+ * extra同时设置了文本和图片时优先显示图片。
+ *
+ * @author nightkyb
+ */
+public final class ListTileModel {
+    // 各个槽位的变化标记，作为DiffUtil的payload
+    public static final int CHANGED_LEADING = 1;
+    public static final int CHANGED_TITLE = 1 << 1;
+    public static final int CHANGED_SUBTITLE = 1 << 2;
+    public static final int CHANGED_EXTRA = 1 << 3;
+    public static final int CHANGED_TRAILING = 1 << 4;
+    public static final int CHANGED_ALL = CHANGED_LEADING | CHANGED_TITLE | CHANGED_SUBTITLE | CHANGED_EXTRA | CHANGED_TRAILING;
+
+    private final long id;
+    @DrawableRes
+    private final int leading;
+    @NonNull
+    private final CharSequence title;
+    @Nullable
+    private final CharSequence subtitle;
+    @Nullable
+    private final CharSequence extra;
+    @DrawableRes
+    private final int extraImage;
+    @DrawableRes
+    private final int trailing;
+
+    private ListTileModel(Builder builder) {
+        this.id = builder.id;
+        this.leading = builder.leading;
+        this.title = Objects.requireNonNull(builder.title, "Title must be set!");
+        this.subtitle = builder.subtitle;
+        this.extra = builder.extra;
+        this.extraImage = builder.extraImage;
+        this.trailing = builder.trailing;
+    }
+
+    /**
+     * 唯一标识，DiffUtil据此判断是否为同一个列表项
+     */
+    public long getId() {
+        return id;
+    }
+
+    @DrawableRes
+    public int getLeading() {
+        return leading;
+    }
+
+    @NonNull
+    public CharSequence getTitle() {
+        return title;
+    }
+
+    @Nullable
+    public CharSequence getSubtitle() {
+        return subtitle;
+    }
+
+    @Nullable
+    public CharSequence getExtra() {
+        return extra;
+    }
+
+    @DrawableRes
+    public int getExtraImage() {
+        return extraImage;
+    }
+
+    @DrawableRes
+    public int getTrailing() {
+        return trailing;
+    }
+
+    /**
+     * 计算两个模型之间发生变化的槽位
+     *
+     * @return 变化标记的组合，例如{@link #CHANGED_TITLE}，没有变化时返回0
+     */
+    public static int diff(@NonNull ListTileModel oldModel, @NonNull ListTileModel newModel) {
+        int changed = 0;
+        if (oldModel.leading != newModel.leading) {
+            changed |= CHANGED_LEADING;
+        }
+        // 样式（例如搜索高亮）的变化也视为变化，见textEquals()
+        if (!textEquals(oldModel.title, newModel.title)) {
+            changed |= CHANGED_TITLE;
+        }
+        if (!textEquals(oldModel.subtitle, newModel.subtitle)) {
+            changed |= CHANGED_SUBTITLE;
+        }
+        if (!textEquals(oldModel.extra, newModel.extra) || oldModel.extraImage != newModel.extraImage) {
+            changed |= CHANGED_EXTRA;
+        }
+        if (oldModel.trailing != newModel.trailing) {
+            changed |= CHANGED_TRAILING;
+        }
+        return changed;
+    }
+
+    /**
+     * 比较文本内容及其样式：内容相同，并且Span（同一个实例或equals）的起止位置和标记相同。
+     * <p>
+     * SpannableString等只在API 28及以上按内容实现了equals，以下为引用比较，
+     * 因此不能直接使用equals，否则每次重新生成的相同高亮都会被视为变化。
+     */
+    static boolean textEquals(@Nullable CharSequence a, @Nullable CharSequence b) {
+        if (a == b) {
+            return true;
+        }
+        if (!TextUtils.equals(a, b)) {
+            return false;
+        }
+        if (!(a instanceof Spanned) || !(b instanceof Spanned)) {
+            return !(a instanceof Spanned) && !(b instanceof Spanned);
+        }
+
+        Spanned spannedA = (Spanned) a;
+        Spanned spannedB = (Spanned) b;
+        Object[] spansA = spannedA.getSpans(0, spannedA.length(), Object.class);
+        Object[] spansB = spannedB.getSpans(0, spannedB.length(), Object.class);
+        if (spansA.length != spansB.length) {
+            return false;
+        }
+        for (int i = 0; i < spansA.length; i++) {
+            Object spanA = spansA[i];
+            Object spanB = spansB[i];
+            if (!spanA.equals(spanB)
+                    || spannedA.getSpanStart(spanA) != spannedB.getSpanStart(spanB)
+                    || spannedA.getSpanEnd(spanA) != spannedB.getSpanEnd(spanB)
+                    || spannedA.getSpanFlags(spanA) != spannedB.getSpanFlags(spanB)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int textHashCode(@Nullable CharSequence text) {
+        return text == null ? 0 : text.toString().hashCode();
+    }
+
+    /**
+     * 以当前模型为基础创建Builder
+     */
+    @NonNull
+    public Builder buildUpon() {
+        return new Builder()
+                .id(id)
+                .leading(leading)
+                .title(title)
+                .subtitle(subtitle)
+                .extra(extra)
+                .extraImage(extraImage)
+                .trailing(trailing);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ListTileModel that = (ListTileModel) o;
+        return id == that.id && diff(this, that) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        // 与textEquals()一致，只按文本内容计算
+        return Objects.hash(id, leading, textHashCode(title), textHashCode(subtitle), textHashCode(extra), extraImage, trailing);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "ListTileModel{id=" + id + ", title=" + title + ", subtitle=" + subtitle + ", extra=" + extra + '}';
+    }
+
+    public static final class Builder {
+        private long id;
+        @DrawableRes
+        private int leading;
+        private CharSequence title;
+        private CharSequence subtitle;
+        private CharSequence extra;
+        @DrawableRes
+        private int extraImage;
+        @DrawableRes
+        private int trailing;
+
+        @NonNull
+        public Builder id(long id) {
+            this.id = id;
+            return this;
+        }
+
+        @NonNull
+        public Builder leading(@DrawableRes int leading) {
+            this.leading = leading;
+            return this;
+        }
+
+        @NonNull
+        public Builder title(@NonNull CharSequence title) {
+            this.title = title;
+            return this;
+        }
+
+        @NonNull
+        public Builder subtitle(@Nullable CharSequence subtitle) {
+            this.subtitle = subtitle;
+            return this;
+        }
+
+        @NonNull
+        public Builder extra(@Nullable CharSequence extra) {
+            this.extra = extra;
+            return this;
+        }
+
+        @NonNull
+        public Builder extraImage(@DrawableRes int extraImage) {
+            this.extraImage = extraImage;
+            return this;
+        }
+
+        @NonNull
+        public Builder trailing(@DrawableRes int trailing) {
+            this.trailing = trailing;
+            return this;
+        }
+
+        @NonNull
+        public ListTileModel build() {
+            return new ListTileModel(this);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.nightkyb.listtile;
+
+import android.content.Context;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+
+/**
+ * 在后台线程预先创建ListTile，首次显示时直接取用，省去样式解析、Drawable着色和子View创建的耗时。
+ * <pre>
+ * pool = new ListTilePool(context, ListTileStyle.obtain(context, R.style.ContactTile), executor);
+ * pool.prewarm(12);
+ *
+ * // onCreateViewHolder()
+ * ListTile tile = pool.acquire();
+ * </pre>
+ * 池中的ListTile持有创建时的Context，池的生命周期不能超过该Context。
+ *
+ * @author nightkyb
+ */
+public final class ListTilePool {
+    @NonNull
+    private final Context context;
+    @NonNull
+    private final ListTileStyle style;
+    @NonNull
+    private final Executor executor;
+    /**
+     * 已经创建好的ListTile，由后台线程放入，主线程取出
+     */
+    private final ArrayDeque<ListTile> tiles = new ArrayDeque<>();
+    /**
+     * 已经提交但尚未创建完成的数量
+     */
+    private int pending;
+    /**
+     * 递增后尚未开始的预创建任务不再执行
+     */
+    private int generation;
+
+    /**
+     * @param style    padding、背景等View本身的属性不在样式中，取出后需要另外设置
+     * @param executor 创建ListTile的Executor，不能是主线程
+     */
+    public ListTilePool(@NonNull Context context, @NonNull ListTileStyle style, @NonNull Executor executor) {
+        this.context = context;
+        this.style = style;
+        this.executor = executor;
+    }
+
+    /**
+     * 在后台补充ListTile，使池中（包括正在创建的）数量达到count
+     */
+    @MainThread
+    public void prewarm(int count) {
+        final int missing;
+        final int gen;
+        synchronized (tiles) {
+            missing = count - tiles.size() - pending;
+            if (missing <= 0) {
+                return;
+            }
+            pending += missing;
+            gen = generation;
+        }
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                int created = 0;
+                try {
+                    for (; created < missing; created++) {
+                        synchronized (tiles) {
+                            if (gen != generation) {
+                                return;
+                            }
+                        }
+
+                        ListTile tile = new ListTile(context, style);
+                        synchronized (tiles) {
+                            if (gen != generation) {
+                                return;
+                            }
+                            pending--;
+                            tiles.addLast(tile);
+                        }
+                    }
+                } finally {
+                    // 创建失败时（例如样式资源错误、内存不足）剩余的数量不会再放入池中，之后的prewarm()可以重新提交
+                    synchronized (tiles) {
+                        if (gen == generation && created < missing) {
+                            pending -= missing - created;
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * 取出一个预先创建的ListTile，池为空时在当前线程创建
+     */
+    @MainThread
+    @NonNull
+    public ListTile acquire() {
+        ListTile tile;
+        synchronized (tiles) {
+            tile = tiles.pollFirst();
+        }
+        return tile != null ? tile : new ListTile(context, style);
+    }
+
+    /**
+     * 池中已经创建好的数量
+     */
+    public int size() {
+        synchronized (tiles) {
+            return tiles.size();
+        }
+    }
+
+    /**
+     * 清空池中的ListTile，尚未完成的预创建不再放入池中
+     */
+    public void clear() {
+        synchronized (tiles) {
+            tiles.clear();
+            pending = 0;
+            generation++;
+        }
+    }
+}
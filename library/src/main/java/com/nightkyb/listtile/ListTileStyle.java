@@ -0,0 +1,785 @@
+package com.nightkyb.listtile;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.graphics.Bitmap;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.util.AttributeSet;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.DrawableRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.Px;
+import androidx.annotation.StyleRes;
+import androidx.core.content.ContextCompat;
+
+/**
+ * ListTile所有{@code lt_*}属性解析后的不可变快照，可以在多个ListTile之间共享。
+ * <p>
+ * 相同主题、相同样式和相同XML属性的ListTile会从{@link ListTileStyleCache}中获取同一个快照，
+ * 省去重复的obtainStyledAttributes解析和Drawable着色。
+ * <p>
+ * 也可以通过{@link Builder}在代码中直接创建，不经过XML属性解析。
+ *
+ * @author nightkyb
+ */
+public final class ListTileStyle {
+    final boolean flat;
+    final boolean stableSize;
+    final boolean displayListCache;
+    /**
+     * 是否将矢量图标栅格化后共享，参见{@link IconBitmapCache}
+     */
+    final boolean rasterizeIcons;
+    @ListTile.OverflowPolicy
+    final int overflowPolicy;
+    @Px
+    final int titleMinWidth;
+    @Px
+    final int extraMinWidth;
+
+    @Nullable
+    final DrawableRef leading;
+    @Px
+    final int leadingSize;
+    @Px
+    final int leadingRightMargin;
+
+    @Nullable
+    final DrawableRef trailing;
+    @Px
+    final int trailingSize;
+    @Px
+    final int trailingLeftMargin;
+
+    @NonNull
+    final CharSequence title;
+    @StyleRes
+    final int titleTextAppearance;
+    @ColorInt
+    final int titleColor;
+
+    @Nullable
+    final CharSequence subtitle;
+    @StyleRes
+    final int subtitleTextAppearance;
+    @ColorInt
+    final int subtitleColor;
+    @Px
+    final int subtitleTopMargin;
+
+    /**
+     * 未设置extra时为0
+     */
+    @ListTile.ExtraType
+    final int extraType;
+    @Nullable
+    final CharSequence extraText;
+    @Nullable
+    final DrawableRef extraImage;
+    @StyleRes
+    final int extraTextAppearance;
+    @ColorInt
+    final int extraColor;
+    @Px
+    final int extraSize;
+    @Px
+    final int extraLeftMargin;
+
+    /**
+     * @param requireTitle 为false时允许不设置{@code lt_title}，title为空字符串，用于作为{@link Builder}的基础
+     */
+    private ListTileStyle(@NonNull Context context, @NonNull TypedArray ta, boolean requireTitle) {
+        flat = ta.getBoolean(R.styleable.ListTile_lt_flat, false);
+        stableSize = ta.getBoolean(R.styleable.ListTile_lt_stable_size, false);
+        displayListCache = ta.getBoolean(R.styleable.ListTile_lt_display_list_cache, false);
+        rasterizeIcons = ta.getBoolean(R.styleable.ListTile_lt_rasterize_icons, false);
+        overflowPolicy = ta.getInt(R.styleable.ListTile_lt_overflow_policy, ListTile.OverflowPolicy.WIDER_SHRINKS);
+        titleMinWidth = ta.getDimensionPixelSize(R.styleable.ListTile_lt_title_min_width, 0);
+        extraMinWidth = ta.getDimensionPixelSize(R.styleable.ListTile_lt_extra_min_width, 0);
+
+        leadingSize = ta.getDimensionPixelSize(R.styleable.ListTile_lt_leading_size, 0);
+        leading = resolveDrawable(context, ta, R.styleable.ListTile_lt_leading, R.styleable.ListTile_lt_leading_color,
+                rasterizeIcons ? leadingSize : 0);
+        leadingRightMargin = ta.getDimensionPixelSize(R.styleable.ListTile_lt_leading_right_margin, 0);
+
+        trailingSize = ta.getDimensionPixelSize(R.styleable.ListTile_lt_trailing_size, 0);
+        trailing = resolveDrawable(context, ta, R.styleable.ListTile_lt_trailing, R.styleable.ListTile_lt_trailing_color,
+                rasterizeIcons ? trailingSize : 0);
+        trailingLeftMargin = ta.getDimensionPixelSize(R.styleable.ListTile_lt_trailing_left_margin, 0);
+
+        if (ta.hasValue(R.styleable.ListTile_lt_title)) {
+            CharSequence titleText = ta.getText(R.styleable.ListTile_lt_title);
+
+            if (titleText != null) {
+                title = titleText;
+            } else {
+                throw new IllegalArgumentException("Title must be a String!");
+            }
+        } else if (requireTitle) {
+            throw new IllegalArgumentException("Title must be set!");
+        } else {
+            title = "";
+        }
+        titleTextAppearance = ta.getResourceId(R.styleable.ListTile_lt_title_textAppearance, 0);
+        titleColor = ta.getColor(R.styleable.ListTile_lt_title_color, 0);
+
+        subtitle = ta.getText(R.styleable.ListTile_lt_subtitle);
+        subtitleTextAppearance = ta.getResourceId(R.styleable.ListTile_lt_subtitle_textAppearance, 0);
+        subtitleColor = ta.getColor(R.styleable.ListTile_lt_subtitle_color, 0);
+        subtitleTopMargin = ta.getDimensionPixelSize(R.styleable.ListTile_lt_subtitle_top_margin, 0);
+
+        extraSize = ta.getDimensionPixelSize(R.styleable.ListTile_lt_extra_size, 0);
+        if (ta.hasValue(R.styleable.ListTile_lt_extra)) {
+            extraType = ta.getInt(R.styleable.ListTile_lt_extra_type, ListTile.ExtraType.TEXT); // 默认text类型
+        } else {
+            extraType = 0;
+        }
+        if (extraType == ListTile.ExtraType.TEXT) {
+            extraText = ta.getText(R.styleable.ListTile_lt_extra);
+            extraImage = null;
+        } else if (extraType == ListTile.ExtraType.IMAGE) {
+            extraText = null;
+            extraImage = resolveDrawable(context, ta, R.styleable.ListTile_lt_extra, R.styleable.ListTile_lt_extra_color,
+                    rasterizeIcons ? extraSize : 0);
+        } else {
+            extraText = null;
+            extraImage = null;
+        }
+        extraTextAppearance = ta.getResourceId(R.styleable.ListTile_lt_extra_textAppearance, 0);
+        extraColor = ta.getColor(R.styleable.ListTile_lt_extra_color, 0);
+        extraLeftMargin = ta.getDimensionPixelSize(R.styleable.ListTile_lt_extra_left_margin, 0);
+    }
+
+    private ListTileStyle(@NonNull Builder builder) {
+        flat = builder.flat;
+        stableSize = builder.stableSize;
+        displayListCache = builder.displayListCache;
+        rasterizeIcons = builder.rasterizeIcons;
+        overflowPolicy = builder.overflowPolicy;
+        titleMinWidth = builder.titleMinWidth;
+        extraMinWidth = builder.extraMinWidth;
+
+        leading = builder.leading.resolve(builder.context, rasterizeIcons ? builder.leadingSize : 0);
+        leadingSize = builder.leadingSize;
+        leadingRightMargin = builder.leadingRightMargin;
+
+        trailing = builder.trailing.resolve(builder.context, rasterizeIcons ? builder.trailingSize : 0);
+        trailingSize = builder.trailingSize;
+        trailingLeftMargin = builder.trailingLeftMargin;
+
+        title = builder.title;
+        titleTextAppearance = builder.titleTextAppearance;
+        titleColor = builder.titleColor;
+
+        subtitle = builder.subtitle;
+        subtitleTextAppearance = builder.subtitleTextAppearance;
+        subtitleColor = builder.subtitleColor;
+        subtitleTopMargin = builder.subtitleTopMargin;
+
+        extraType = builder.extraType;
+        extraText = extraType == ListTile.ExtraType.TEXT ? builder.extraText : null;
+        extraImage = extraType == ListTile.ExtraType.IMAGE
+                ? builder.extraImage.resolve(builder.context, rasterizeIcons ? builder.extraSize : 0) : null;
+        extraTextAppearance = builder.extraTextAppearance;
+        extraColor = builder.extraColor;
+        extraSize = builder.extraSize;
+        extraLeftMargin = builder.extraLeftMargin;
+    }
+
+    /**
+     * 除内容（图片、文本）以外的布局属性是否相同，相同时一个ListTile可以通过{@link ListTile#applyStyle(ListTileStyle)}复用
+     */
+    boolean hasSameLayout(@NonNull ListTileStyle other) {
+        return flat == other.flat
+                && stableSize == other.stableSize
+                && displayListCache == other.displayListCache
+                && rasterizeIcons == other.rasterizeIcons
+                && overflowPolicy == other.overflowPolicy
+                && titleMinWidth == other.titleMinWidth
+                && extraMinWidth == other.extraMinWidth
+                && leadingSize == other.leadingSize
+                && leadingRightMargin == other.leadingRightMargin
+                && trailingSize == other.trailingSize
+                && trailingLeftMargin == other.trailingLeftMargin
+                && titleTextAppearance == other.titleTextAppearance
+                && titleColor == other.titleColor
+                && subtitleTextAppearance == other.subtitleTextAppearance
+                && subtitleColor == other.subtitleColor
+                && subtitleTopMargin == other.subtitleTopMargin
+                && extraTextAppearance == other.extraTextAppearance
+                && extraColor == other.extraColor
+                && extraSize == other.extraSize
+                && extraLeftMargin == other.extraLeftMargin;
+    }
+
+    /**
+     * 布局属性和各个槽位是否存在的组合，相同时ListTile的高度通常相同，用于估算高度
+     */
+    int shapeSignature() {
+        int result = flat ? 1 : 0;
+        result = 31 * result + leadingSize;
+        result = 31 * result + trailingSize;
+        result = 31 * result + titleTextAppearance;
+        result = 31 * result + subtitleTextAppearance;
+        result = 31 * result + subtitleTopMargin;
+        result = 31 * result + extraTextAppearance;
+        result = 31 * result + extraSize;
+        result = 31 * result + (leading != null ? 1 : 0);
+        result = 31 * result + (trailing != null ? 1 : 0);
+        result = 31 * result + (subtitle != null ? 1 : 0);
+        result = 31 * result + extraType;
+        return result;
+    }
+
+    /**
+     * 从样式资源中获取样式快照，用于{@link ListTile#ListTile(Context, ListTileStyle)}，可以在后台线程调用。
+     * 样式中必须设置{@code lt_title}，未设置的属性不会从{@link R.style#ListTileStyle}继承。
+     */
+    @NonNull
+    public static ListTileStyle obtain(@NonNull Context context, @StyleRes int styleRes) {
+        return obtain(context, null, 0, styleRes);
+    }
+
+    /**
+     * 获取ListTile的样式快照，优先从缓存中获取
+     */
+    @NonNull
+    static ListTileStyle obtain(@NonNull Context context, @Nullable AttributeSet attrs, int defStyleAttr, @StyleRes int defStyleRes) {
+        Resources.Theme theme = context.getTheme();
+        String key = ListTileStyleCache.key(context, attrs, defStyleAttr, defStyleRes);
+
+        ListTileStyle style = ListTileStyleCache.get(theme, key);
+        if (style != null) {
+            return style;
+        }
+
+        final TypedArray ta = context.obtainStyledAttributes(attrs, R.styleable.ListTile, defStyleAttr, defStyleRes);
+        try {
+            style = new ListTileStyle(context, ta, true);
+        } finally {
+            ta.recycle();
+        }
+
+        if (style.isShareable()) {
+            ListTileStyleCache.put(context, theme, key, style);
+        }
+        return style;
+    }
+
+    /**
+     * 获取{@link Builder}的基础样式，与{@link #obtain(Context, AttributeSet, int, int)}的区别是不要求设置{@code lt_title}
+     */
+    @NonNull
+    private static ListTileStyle obtainBase(@NonNull Context context, int defStyleAttr, @StyleRes int defStyleRes) {
+        Resources.Theme theme = context.getTheme();
+        // 与obtain()的缓存键区分，避免没有title的样式被obtain()取到
+        String key = ListTileStyleCache.key(context, null, defStyleAttr, defStyleRes) + "/base";
+
+        ListTileStyle style = ListTileStyleCache.get(theme, key);
+        if (style != null) {
+            return style;
+        }
+
+        final TypedArray ta = context.obtainStyledAttributes(null, R.styleable.ListTile, defStyleAttr, defStyleRes);
+        try {
+            style = new ListTileStyle(context, ta, false);
+        } finally {
+            ta.recycle();
+        }
+
+        if (style.isShareable()) {
+            ListTileStyleCache.put(context, theme, key, style);
+        }
+        return style;
+    }
+
+    /**
+     * 所有Drawable都能通过ConstantState创建新实例时才能共享
+     */
+    private boolean isShareable() {
+        return (leading == null || leading.isShareable())
+                && (trailing == null || trailing.isShareable())
+                && (extraImage == null || extraImage.isShareable());
+    }
+
+    /**
+     * @param rasterSize 大于0时矢量图按该尺寸栅格化，参见{@link IconBitmapCache}
+     */
+    @Nullable
+    private static DrawableRef resolveDrawable(@NonNull Context context, @NonNull TypedArray ta, int index, int colorIndex,
+                                               @Px int rasterSize) {
+        if (!ta.hasValue(index)) {
+            return null;
+        }
+
+        final int resId = ta.getResourceId(index, 0);
+        final boolean tinted = ta.hasValue(colorIndex);
+        final int color = tinted ? ta.getColor(colorIndex, 0) : 0;
+        DrawableRef ref = resolveDrawable(context, resId, tinted, color, rasterSize);
+        if (ref != null) {
+            return ref;
+        }
+
+        // 不是资源引用，例如颜色字面量
+        Drawable drawable = ta.getDrawable(index);
+        if (drawable != null && tinted) {
+            drawable = TintedDrawableCache.tint(drawable, color);
+        }
+        return drawable == null ? null : new DrawableRef(drawable, 0, tinted, color);
+    }
+
+    /**
+     * 通过资源ID获取图片
+     *
+     * @return 资源ID为0或资源不存在时返回null
+     */
+    @Nullable
+    private static DrawableRef resolveDrawable(@NonNull Context context, @DrawableRes int resId, boolean tinted,
+                                               @ColorInt int color, @Px int rasterSize) {
+        if (resId == 0) {
+            return null;
+        }
+
+        if (rasterSize > 0) {
+            Bitmap bitmap = tinted
+                    ? IconBitmapCache.get(context, resId, rasterSize, color)
+                    : IconBitmapCache.get(context, resId, rasterSize);
+            if (bitmap != null) {
+                return new DrawableRef(new BitmapDrawable(context.getResources(), bitmap), resId, tinted, color);
+            }
+        }
+
+        // 相同资源、相同颜色的着色结果在所有ListTile之间共享
+        Drawable drawable = tinted ? TintedDrawableCache.get(context, resId, color) : ContextCompat.getDrawable(context, resId);
+        return drawable == null ? null : new DrawableRef(drawable, resId, tinted, color);
+    }
+
+    /**
+     * 在代码中创建样式，各个方法与{@code lt_*}属性一一对应，颜色和尺寸都是解析后的值。可以在任意线程使用。
+     * <pre>
+     * ListTileStyle style = new ListTileStyle.Builder(context, R.style.ListTileStyle_ExtraText)
+     *         .title("版本")
+     *         .extra("v1.0.0")
+     *         .build();
+     * ListTile tile = new ListTile(context, style);
+     * </pre>
+     * 以样式资源为基础时只使用该样式及其父样式中的属性，主题中的{@code listTileStyle}不再生效。
+     * 基础样式只解析一次，之后从{@link ListTileStyleCache}中获取。
+     */
+    public static final class Builder {
+        @NonNull
+        private final Context context;
+
+        private boolean flat;
+        private boolean stableSize;
+        private boolean displayListCache;
+        private boolean rasterizeIcons;
+        @ListTile.OverflowPolicy
+        private int overflowPolicy;
+        @Px
+        private int titleMinWidth;
+        @Px
+        private int extraMinWidth;
+
+        @NonNull
+        private final ImageSpec leading;
+        @Px
+        private int leadingSize;
+        @Px
+        private int leadingRightMargin;
+
+        @NonNull
+        private final ImageSpec trailing;
+        @Px
+        private int trailingSize;
+        @Px
+        private int trailingLeftMargin;
+
+        @NonNull
+        private CharSequence title;
+        @StyleRes
+        private int titleTextAppearance;
+        @ColorInt
+        private int titleColor;
+
+        @Nullable
+        private CharSequence subtitle;
+        @StyleRes
+        private int subtitleTextAppearance;
+        @ColorInt
+        private int subtitleColor;
+        @Px
+        private int subtitleTopMargin;
+
+        @ListTile.ExtraType
+        private int extraType;
+        @Nullable
+        private CharSequence extraText;
+        @NonNull
+        private final ImageSpec extraImage;
+        @StyleRes
+        private int extraTextAppearance;
+        @ColorInt
+        private int extraColor;
+        @Px
+        private int extraSize;
+        @Px
+        private int extraLeftMargin;
+
+        /**
+         * 以主题中的{@code listTileStyle}（未设置时为{@code ListTileStyle}）为基础，与不设置style属性的ListTile相同
+         */
+        public Builder(@NonNull Context context) {
+            this(context, obtainBase(context, R.attr.listTileStyle, ListTile.DEF_STYLE_RES));
+        }
+
+        /**
+         * 以样式资源为基础，相当于XML中的{@code style="@style/..."}，样式应当继承{@code ListTileStyle}
+         */
+        public Builder(@NonNull Context context, @StyleRes int styleRes) {
+            this(context, obtainBase(context, 0, styleRes));
+        }
+
+        /**
+         * 以已有的样式为基础
+         */
+        public Builder(@NonNull Context context, @NonNull ListTileStyle style) {
+            this.context = context;
+            flat = style.flat;
+            stableSize = style.stableSize;
+            displayListCache = style.displayListCache;
+            rasterizeIcons = style.rasterizeIcons;
+            overflowPolicy = style.overflowPolicy;
+            titleMinWidth = style.titleMinWidth;
+            extraMinWidth = style.extraMinWidth;
+
+            leading = new ImageSpec(style.leading);
+            leadingSize = style.leadingSize;
+            leadingRightMargin = style.leadingRightMargin;
+
+            trailing = new ImageSpec(style.trailing);
+            trailingSize = style.trailingSize;
+            trailingLeftMargin = style.trailingLeftMargin;
+
+            title = style.title;
+            titleTextAppearance = style.titleTextAppearance;
+            titleColor = style.titleColor;
+
+            subtitle = style.subtitle;
+            subtitleTextAppearance = style.subtitleTextAppearance;
+            subtitleColor = style.subtitleColor;
+            subtitleTopMargin = style.subtitleTopMargin;
+
+            extraType = style.extraType;
+            extraText = style.extraText;
+            extraImage = new ImageSpec(style.extraImage);
+            extraTextAppearance = style.extraTextAppearance;
+            extraColor = style.extraColor;
+            extraSize = style.extraSize;
+            extraLeftMargin = style.extraLeftMargin;
+        }
+
+        @NonNull
+        public Builder flat(boolean flat) {
+            this.flat = flat;
+            return this;
+        }
+
+        @NonNull
+        public Builder stableSize(boolean stableSize) {
+            this.stableSize = stableSize;
+            return this;
+        }
+
+        @NonNull
+        public Builder displayListCache(boolean displayListCache) {
+            this.displayListCache = displayListCache;
+            return this;
+        }
+
+        @NonNull
+        public Builder rasterizeIcons(boolean rasterizeIcons) {
+            if (this.rasterizeIcons != rasterizeIcons) {
+                this.rasterizeIcons = rasterizeIcons;
+                leading.changed = true;
+                trailing.changed = true;
+                extraImage.changed = true;
+            }
+            return this;
+        }
+
+        @NonNull
+        public Builder overflowPolicy(@ListTile.OverflowPolicy int overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        @NonNull
+        public Builder titleMinWidth(@Px int titleMinWidth) {
+            this.titleMinWidth = titleMinWidth;
+            return this;
+        }
+
+        @NonNull
+        public Builder extraMinWidth(@Px int extraMinWidth) {
+            this.extraMinWidth = extraMinWidth;
+            return this;
+        }
+
+        /**
+         * @param leading 为0时移除
+         */
+        @NonNull
+        public Builder leading(@DrawableRes int leading) {
+            this.leading.setResource(leading);
+            return this;
+        }
+
+        @NonNull
+        public Builder leadingColor(@ColorInt int color) {
+            leading.setColor(color);
+            return this;
+        }
+
+        @NonNull
+        public Builder leadingSize(@Px int leadingSize) {
+            if (this.leadingSize != leadingSize) {
+                this.leadingSize = leadingSize;
+                leading.changed = true;
+            }
+            return this;
+        }
+
+        @NonNull
+        public Builder leadingRightMargin(@Px int leadingRightMargin) {
+            this.leadingRightMargin = leadingRightMargin;
+            return this;
+        }
+
+        /**
+         * @param trailing 为0时移除
+         */
+        @NonNull
+        public Builder trailing(@DrawableRes int trailing) {
+            this.trailing.setResource(trailing);
+            return this;
+        }
+
+        @NonNull
+        public Builder trailingColor(@ColorInt int color) {
+            trailing.setColor(color);
+            return this;
+        }
+
+        @NonNull
+        public Builder trailingSize(@Px int trailingSize) {
+            if (this.trailingSize != trailingSize) {
+                this.trailingSize = trailingSize;
+                trailing.changed = true;
+            }
+            return this;
+        }
+
+        @NonNull
+        public Builder trailingLeftMargin(@Px int trailingLeftMargin) {
+            this.trailingLeftMargin = trailingLeftMargin;
+            return this;
+        }
+
+        @NonNull
+        public Builder title(@NonNull CharSequence title) {
+            this.title = title;
+            return this;
+        }
+
+        @NonNull
+        public Builder titleTextAppearance(@StyleRes int titleTextAppearance) {
+            this.titleTextAppearance = titleTextAppearance;
+            return this;
+        }
+
+        @NonNull
+        public Builder titleColor(@ColorInt int titleColor) {
+            this.titleColor = titleColor;
+            return this;
+        }
+
+        @NonNull
+        public Builder subtitle(@Nullable CharSequence subtitle) {
+            this.subtitle = subtitle;
+            return this;
+        }
+
+        @NonNull
+        public Builder subtitleTextAppearance(@StyleRes int subtitleTextAppearance) {
+            this.subtitleTextAppearance = subtitleTextAppearance;
+            return this;
+        }
+
+        @NonNull
+        public Builder subtitleColor(@ColorInt int subtitleColor) {
+            this.subtitleColor = subtitleColor;
+            return this;
+        }
+
+        @NonNull
+        public Builder subtitleTopMargin(@Px int subtitleTopMargin) {
+            this.subtitleTopMargin = subtitleTopMargin;
+            return this;
+        }
+
+        /**
+         * 设置extra文本，相当于{@code lt_extra_type="text"}
+         *
+         * @param extra 为null时移除extra
+         */
+        @NonNull
+        public Builder extra(@Nullable CharSequence extra) {
+            extraText = extra;
+            extraType = extra != null ? ListTile.ExtraType.TEXT : 0;
+            return this;
+        }
+
+        /**
+         * 设置extra图片，相当于{@code lt_extra_type="image"}
+         *
+         * @param extraImage 为0时移除extra
+         */
+        @NonNull
+        public Builder extraImage(@DrawableRes int extraImage) {
+            this.extraImage.setResource(extraImage);
+            extraType = extraImage != 0 ? ListTile.ExtraType.IMAGE : 0;
+            return this;
+        }
+
+        @NonNull
+        public Builder extraTextAppearance(@StyleRes int extraTextAppearance) {
+            this.extraTextAppearance = extraTextAppearance;
+            return this;
+        }
+
+        /**
+         * extra文本的颜色，extra为图片时作为着色颜色
+         */
+        @NonNull
+        public Builder extraColor(@ColorInt int extraColor) {
+            this.extraColor = extraColor;
+            extraImage.setColor(extraColor);
+            return this;
+        }
+
+        @NonNull
+        public Builder extraSize(@Px int extraSize) {
+            if (this.extraSize != extraSize) {
+                this.extraSize = extraSize;
+                extraImage.changed = true;
+            }
+            return this;
+        }
+
+        @NonNull
+        public Builder extraLeftMargin(@Px int extraLeftMargin) {
+            this.extraLeftMargin = extraLeftMargin;
+            return this;
+        }
+
+        /**
+         * 创建样式，只有资源、颜色或栅格化尺寸发生变化的图片会重新获取
+         */
+        @NonNull
+        public ListTileStyle build() {
+            return new ListTileStyle(this);
+        }
+    }
+
+    /**
+     * Builder中一个图片槽位的状态
+     */
+    private static final class ImageSpec {
+        /**
+         * 基础样式中的图片，没有修改时直接复用
+         */
+        @Nullable
+        private DrawableRef base;
+        @DrawableRes
+        private int resId;
+        private boolean tinted;
+        @ColorInt
+        private int color;
+        boolean changed;
+
+        ImageSpec(@Nullable DrawableRef base) {
+            this.base = base;
+            if (base != null) {
+                resId = base.resId;
+                tinted = base.tinted;
+                color = base.color;
+            }
+        }
+
+        void setResource(@DrawableRes int resId) {
+            this.resId = resId;
+            base = null;
+            changed = true;
+        }
+
+        void setColor(@ColorInt int color) {
+            tinted = true;
+            this.color = color;
+            changed = true;
+        }
+
+        @Nullable
+        DrawableRef resolve(@NonNull Context context, @Px int rasterSize) {
+            if (!changed) {
+                return base;
+            }
+            if (resId != 0) {
+                return resolveDrawable(context, resId, tinted, color, rasterSize);
+            }
+            if (base == null || !tinted) {
+                return base;
+            }
+            // 不是通过资源设置的图片只能重新着色
+            Drawable drawable = TintedDrawableCache.tint(base.newDrawable(context.getResources()), color);
+            return new DrawableRef(drawable, 0, true, color);
+        }
+    }
+
+    /**
+     * 保存Drawable的共享状态，每个ListTile通过{@link #newDrawable(Resources)}获取自己的实例
+     */
+    static final class DrawableRef {
+        @Nullable
+        private final Drawable.ConstantState state;
+        @NonNull
+        private final Drawable drawable;
+        // Drawable的来源，Builder修改颜色或尺寸时据此重新获取
+        @DrawableRes
+        final int resId;
+        final boolean tinted;
+        @ColorInt
+        final int color;
+
+        DrawableRef(@NonNull Drawable drawable, @DrawableRes int resId, boolean tinted, @ColorInt int color) {
+            this.drawable = drawable;
+            this.state = drawable.getConstantState();
+            this.resId = resId;
+            this.tinted = tinted;
+            this.color = color;
+        }
+
+        boolean isShareable() {
+            return state != null;
+        }
+
+        @NonNull
+        Drawable newDrawable(@NonNull Resources res) {
+            return state != null ? state.newDrawable(res) : drawable;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.nightkyb.listtile;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.util.AttributeSet;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.StyleRes;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * 进程内共享的{@link ListTileStyle}缓存，以(主题, 默认样式, style属性, XML中的lt_*属性)为键。
+ * <p>
+ * 主题作为弱引用键，Activity销毁后对应的缓存随之释放；配置变化（例如深色模式切换）和内存不足时清空所有缓存，
+ * 也可以通过{@link #clear()}手动清空。
+ *
+ * @author nightkyb
+ */
+public final class ListTileStyleCache {
+    /**
+     * 每个主题最多缓存的样式数量
+     */
+    private static final int MAX_SIZE_PER_THEME = 64;
+
+    private static final int[] LIST_TILE_ATTRS;
+
+    static {
+        LIST_TILE_ATTRS = R.styleable.ListTile.clone();
+        Arrays.sort(LIST_TILE_ATTRS);
+    }
+
+    private static final Map<Resources.Theme, Map<String, ListTileStyle>> CACHE = new WeakHashMap<>();
+    private static boolean callbacksRegistered;
+
+    private static final ComponentCallbacks2 CALLBACKS = new ComponentCallbacks2() {
+        @Override
+        public void onConfigurationChanged(@NonNull Configuration newConfig) {
+            clear();
+        }
+
+        @Override
+        public void onLowMemory() {
+            clear();
+        }
+
+        @Override
+        public void onTrimMemory(int level) {
+            if (level >= TRIM_MEMORY_BACKGROUND) {
+                clear();
+            }
+        }
+    };
+
+    private ListTileStyleCache() {
+    }
+
+    /**
+     * 清空所有缓存的样式、着色Drawable、图标位图和文本排版，之后创建的ListTile会重新解析属性
+     */
+    public static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+        TintedDrawableCache.clear();
+        IconBitmapCache.clear();
+        TextLayoutCache.clear();
+    }
+
+    @Nullable
+    static ListTileStyle get(@NonNull Resources.Theme theme, @NonNull String key) {
+        synchronized (CACHE) {
+            Map<String, ListTileStyle> styles = CACHE.get(theme);
+            return styles == null ? null : styles.get(key);
+        }
+    }
+
+    static void put(@NonNull Context context, @NonNull Resources.Theme theme, @NonNull String key, @NonNull ListTileStyle style) {
+        synchronized (CACHE) {
+            Map<String, ListTileStyle> styles = CACHE.get(theme);
+            if (styles == null) {
+                styles = new LinkedHashMap<String, ListTileStyle>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, ListTileStyle> eldest) {
+                        return size() > MAX_SIZE_PER_THEME;
+                    }
+                };
+                CACHE.put(theme, styles);
+            }
+            styles.put(key, style);
+        }
+        registerCallbacks(context);
+    }
+
+    /**
+     * 注册配置变化和内存不足的回调，各个缓存在首次使用时调用，重复调用无效
+     */
+    static void registerCallbacks(@NonNull Context context) {
+        synchronized (CACHE) {
+            if (callbacksRegistered) {
+                return;
+            }
+            Context appContext = context.getApplicationContext();
+            if (appContext != null) {
+                appContext.registerComponentCallbacks(CALLBACKS);
+                callbacksRegistered = true;
+            }
+        }
+    }
+
+    /**
+     * 生成缓存键。只记录XML中属于ListTile的属性及其原始值（资源引用、主题属性引用或字面量），
+     * 原始值在同一主题下解析结果相同。
+     */
+    @NonNull
+    static String key(@NonNull Context context, @Nullable AttributeSet attrs, int defStyleAttr, @StyleRes int defStyleRes) {
+        Configuration config = context.getResources().getConfiguration();
+
+        StringBuilder key = new StringBuilder(64)
+                .append(config.uiMode).append('/')
+                .append(config.densityDpi).append('/')
+                .append(defStyleAttr).append('/')
+                .append(defStyleRes);
+
+        if (attrs != null) {
+            key.append('/').append(attrs.getStyleAttribute());
+
+            for (int i = 0, count = attrs.getAttributeCount(); i < count; i++) {
+                int nameRes = attrs.getAttributeNameResource(i);
+                if (nameRes == 0) {
+                    // 无法确定是否为ListTile的属性，按名称记录
+                    key.append('|').append(attrs.getAttributeName(i)).append('=').append(attrs.getAttributeValue(i));
+                } else if (Arrays.binarySearch(LIST_TILE_ATTRS, nameRes) >= 0) {
+                    key.append('|').append(nameRes).append('=').append(attrs.getAttributeValue(i));
+                }
+            }
+        }
+        return key.toString();
+    }
+}
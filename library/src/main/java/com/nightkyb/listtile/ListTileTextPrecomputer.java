@@ -0,0 +1,90 @@
+package com.nightkyb.listtile;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.text.PrecomputedTextCompat;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * 在后台线程预计算ListTile的文本，避免在UI线程测量时进行文本排版（shaping），对多行的extra文本和CJK文本尤其有效。
+ * <p>
+ * 通过{@link #from(ListTile)}从一个已创建的ListTile获取其title、subtitle、extra的文本外观，
+ * 之后可以在任意线程调用{@link #precompute(CharSequence, CharSequence, CharSequence, Executor)}，
+ * 预计算结果可以设置给所有文本外观相同的ListTile。
+ * <p>
+ * 预计算结果与宽度无关，绑定时的换行会直接复用预计算得到的字形宽度。
+ *
+ * @author nightkyb
+ */
+public final class ListTileTextPrecomputer {
+    @Nullable
+    private final PrecomputedTextCompat.Params titleParams;
+    @Nullable
+    private final PrecomputedTextCompat.Params subtitleParams;
+    @Nullable
+    private final PrecomputedTextCompat.Params extraParams;
+
+    private ListTileTextPrecomputer(@Nullable PrecomputedTextCompat.Params titleParams,
+                                    @Nullable PrecomputedTextCompat.Params subtitleParams,
+                                    @Nullable PrecomputedTextCompat.Params extraParams) {
+        this.titleParams = titleParams;
+        this.subtitleParams = subtitleParams;
+        this.extraParams = extraParams;
+    }
+
+    /**
+     * 获取ListTile已解析的文本外观
+     */
+    @MainThread
+    @NonNull
+    public static ListTileTextPrecomputer from(@NonNull ListTile tile) {
+        return new ListTileTextPrecomputer(tile.getTitleTextMetricsParams(),
+                tile.getSubtitleTextMetricsParams(), tile.getExtraTextMetricsParams());
+    }
+
+    /**
+     * 在指定的Executor上预计算文本，ListTile中不存在的槽位对应的文本会被忽略
+     *
+     * @param executor 执行预计算的Executor，不能是主线程
+     */
+    @NonNull
+    public Future<PrecomputedTileText> precompute(@Nullable final CharSequence title,
+                                                  @Nullable final CharSequence subtitle,
+                                                  @Nullable final CharSequence extra,
+                                                  @NonNull Executor executor) {
+        FutureTask<PrecomputedTileText> task = new FutureTask<>(new Callable<PrecomputedTileText>() {
+            @Override
+            public PrecomputedTileText call() {
+                return precompute(title, subtitle, extra);
+            }
+        });
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * 在当前线程预计算文本
+     */
+    @NonNull
+    public PrecomputedTileText precompute(@Nullable CharSequence title, @Nullable CharSequence subtitle,
+                                          @Nullable CharSequence extra) {
+        return new PrecomputedTileText(create(title, titleParams), create(subtitle, subtitleParams),
+                create(extra, extraParams), extraParams != null);
+    }
+
+    @Nullable
+    private static PrecomputedTextCompat create(@Nullable CharSequence text, @Nullable PrecomputedTextCompat.Params params) {
+        if (text == null || params == null) {
+            return null;
+        }
+        if (text instanceof PrecomputedTextCompat && ((PrecomputedTextCompat) text).getParams().equals(params)) {
+            return (PrecomputedTextCompat) text;
+        }
+        return PrecomputedTextCompat.create(text, params);
+    }
+}
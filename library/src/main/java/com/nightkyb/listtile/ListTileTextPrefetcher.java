@@ -0,0 +1,208 @@
+package com.nightkyb.listtile;
+
+import android.util.SparseArray;
+import android.view.View;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.recyclerview.widget.StaggeredGridLayoutManager;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+/**
+ * 配合RecyclerView使用的文本预取器：滚动时在后台为即将进入屏幕的列表项预计算文本，
+ * 绑定时直接使用已完成的预计算结果。
+ * <pre>
+ * prefetcher = new ListTileTextPrefetcher(source, executor);
+ * prefetcher.attachToRecyclerView(recyclerView);
+ *
+ * // onBindViewHolder()
+ * if (!prefetcher.bind(tile, position)) {
+ *     tile.edit().title(..).subtitle(..).extra(..).apply();
+ * }
+ * </pre>
+ * 支持水平和垂直滚动以及任意LayoutManager：根据当前显示的列表项和滚动方向，预取之后{@link #setPrefetchDistance(int)}行（列）。
+ * 预取位置由ListTileTextPrefetcher自行估算，没有接入RecyclerView自身的预取（GapWorker），
+ * 两者预取的列表项可能不完全相同，未命中时由调用方直接设置文本。
+ *
+ * @author nightkyb
+ */
+public class ListTileTextPrefetcher extends RecyclerView.OnScrollListener {
+    private static final int DEFAULT_PREFETCH_DISTANCE = 6;
+
+    /**
+     * 提供指定位置的文本，可能在任意时刻被调用，但始终在主线程
+     */
+    public interface TextSource {
+        @Nullable
+        CharSequence getTitle(int position);
+
+        @Nullable
+        CharSequence getSubtitle(int position);
+
+        @Nullable
+        CharSequence getExtra(int position);
+    }
+
+    private final TextSource source;
+    private final Executor executor;
+    private final SparseArray<Future<PrecomputedTileText>> pending = new SparseArray<>();
+    private int prefetchDistance = DEFAULT_PREFETCH_DISTANCE;
+    @Nullable
+    private ListTileTextPrecomputer precomputer;
+
+    public ListTileTextPrefetcher(@NonNull TextSource source, @NonNull Executor executor) {
+        this.source = source;
+        this.executor = executor;
+    }
+
+    /**
+     * 设置预取的行数（水平滚动时为列数），网格中每行包含spanCount个列表项，默认为{@value #DEFAULT_PREFETCH_DISTANCE}
+     */
+    public void setPrefetchDistance(int prefetchDistance) {
+        this.prefetchDistance = Math.max(0, prefetchDistance);
+    }
+
+    public void attachToRecyclerView(@NonNull RecyclerView recyclerView) {
+        recyclerView.addOnScrollListener(this);
+    }
+
+    public void detachFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        recyclerView.removeOnScrollListener(this);
+        clear();
+    }
+
+    /**
+     * 将预计算结果绑定到ListTile，同时以该ListTile的文本外观作为之后预计算的依据
+     *
+     * @return 预计算已完成且与当前数据一致时返回true，否则需要调用方自行设置文本
+     */
+    @MainThread
+    public boolean bind(@NonNull ListTile tile, int position) {
+        if (precomputer == null) {
+            precomputer = ListTileTextPrecomputer.from(tile);
+        }
+
+        Future<PrecomputedTileText> future = pending.get(position);
+        if (future == null || !future.isDone()) {
+            return false;
+        }
+        pending.remove(position);
+
+        PrecomputedTileText text;
+        try {
+            text = future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            return false;
+        }
+        if (!text.matches(source.getTitle(position), source.getSubtitle(position), source.getExtra(position))) {
+            return false;
+        }
+        text.applyTo(tile);
+        return true;
+    }
+
+    /**
+     * 数据集变化后需要清空已有的预计算结果
+     */
+    @MainThread
+    public void clear() {
+        for (int i = 0; i < pending.size(); i++) {
+            pending.valueAt(i).cancel(false);
+        }
+        pending.clear();
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        if (precomputer == null || layoutManager == null) {
+            return;
+        }
+        int delta = layoutManager.canScrollVertically() ? dy : dx;
+        if (delta == 0) {
+            return;
+        }
+
+        // 按子View的位置确定当前显示的范围，不依赖具体的LayoutManager
+        int first = Integer.MAX_VALUE;
+        int last = RecyclerView.NO_POSITION;
+        for (int i = 0; i < recyclerView.getChildCount(); i++) {
+            int position = recyclerView.getChildAdapterPosition(recyclerView.getChildAt(i));
+            if (position != RecyclerView.NO_POSITION) {
+                first = Math.min(first, position);
+                last = Math.max(last, position);
+            }
+        }
+        if (last == RecyclerView.NO_POSITION) {
+            return;
+        }
+
+        // 网格中每一行（列）有spanCount个列表项
+        int distance = prefetchDistance * getSpanCount(layoutManager);
+        int start;
+        int end;
+        if (isForward(recyclerView, layoutManager, delta)) {
+            start = last + 1;
+            end = Math.min(last + distance, layoutManager.getItemCount() - 1);
+        } else {
+            start = Math.max(first - distance, 0);
+            end = first - 1;
+        }
+
+        evictOutside(first - distance, last + distance);
+        for (int position = start; position <= end; position++) {
+            if (pending.get(position) == null) {
+                pending.put(position, precomputer.precompute(source.getTitle(position),
+                        source.getSubtitle(position), source.getExtra(position), executor));
+            }
+        }
+    }
+
+    /**
+     * 滚动后是否显示位置更大的列表项
+     */
+    private static boolean isForward(@NonNull RecyclerView recyclerView, @NonNull RecyclerView.LayoutManager layoutManager,
+                                     int delta) {
+        boolean forward = delta > 0;
+        if (layoutManager instanceof LinearLayoutManager && ((LinearLayoutManager) layoutManager).getReverseLayout()
+                || layoutManager instanceof StaggeredGridLayoutManager
+                && ((StaggeredGridLayoutManager) layoutManager).getReverseLayout()) {
+            forward = !forward;
+        }
+        if (!layoutManager.canScrollVertically()
+                && recyclerView.getLayoutDirection() == View.LAYOUT_DIRECTION_RTL) {
+            forward = !forward;
+        }
+        return forward;
+    }
+
+    private static int getSpanCount(@NonNull RecyclerView.LayoutManager layoutManager) {
+        if (layoutManager instanceof GridLayoutManager) {
+            return ((GridLayoutManager) layoutManager).getSpanCount();
+        }
+        if (layoutManager instanceof StaggeredGridLayoutManager) {
+            return ((StaggeredGridLayoutManager) layoutManager).getSpanCount();
+        }
+        return 1;
+    }
+
+    /**
+     * 取消预取窗口以外的预计算
+     */
+    private void evictOutside(int start, int end) {
+        for (int i = pending.size() - 1; i >= 0; i--) {
+            int position = pending.keyAt(i);
+            if (position < start || position > end) {
+                pending.valueAt(i).cancel(false);
+                pending.remove(position);
+            }
+        }
+    }
+}
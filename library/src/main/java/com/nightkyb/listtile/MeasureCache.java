@@ -0,0 +1,111 @@
+package com.nightkyb.listtile;
+
+import androidx.annotation.Px;
+
+import java.util.Arrays;
+
+/**
+ * {@link ListTile}的测量结果缓存，以(widthMeasureSpec, heightMeasureSpec)为键，并记录测量时的内容版本号。
+ * 内容版本号变化后所有缓存项自动失效。
+ * <p>
+ * 除自身测量结果外还保存了各个槽位的测量尺寸，命中非当前结果时可以直接用EXACTLY重放，无需重新计算溢出。
+ *
+ * @author nightkyb
+ */
+final class MeasureCache {
+    static final int SLOT_LEADING = 0;
+    static final int SLOT_TRAILING = 1;
+    static final int SLOT_TITLE = 2;
+    static final int SLOT_SUBTITLE = 3;
+    static final int SLOT_EXTRA = 4;
+    private static final int SLOT_COUNT = 5;
+
+    /**
+     * RecyclerView/ConstraintLayout等父布局一帧内通常最多以2-3组不同的MeasureSpec测量子View
+     */
+    private static final int CAPACITY = 4;
+
+    private final int[] widthSpecs = new int[CAPACITY];
+    private final int[] heightSpecs = new int[CAPACITY];
+    private final int[] versions = new int[CAPACITY];
+    private final int[] measuredWidths = new int[CAPACITY];
+    private final int[] measuredHeights = new int[CAPACITY];
+    private final int[][] slotSizes = new int[CAPACITY][SLOT_COUNT * 2];
+
+    private int size;
+    private int next;
+    /**
+     * 槽位当前所处的测量结果，-1表示未知
+     */
+    private int current = -1;
+
+    /**
+     * 查找缓存项
+     *
+     * @return 缓存项索引，未命中时返回-1
+     */
+    int find(int widthMeasureSpec, int heightMeasureSpec, int version) {
+        for (int i = 0; i < size; i++) {
+            if (widthSpecs[i] == widthMeasureSpec && heightSpecs[i] == heightMeasureSpec && versions[i] == version) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 新增或更新缓存项，并将其作为当前结果，容量不足时覆盖最早的缓存项
+     *
+     * @return 缓存项索引，之后通过{@link #setSlotSize(int, int, int, int)}记录槽位尺寸
+     */
+    int put(int widthMeasureSpec, int heightMeasureSpec, int version, @Px int measuredWidth, @Px int measuredHeight) {
+        int index = find(widthMeasureSpec, heightMeasureSpec, version);
+        if (index < 0) {
+            index = next;
+            next = (next + 1) % CAPACITY;
+            size = Math.max(size, next == 0 ? CAPACITY : next);
+        }
+
+        widthSpecs[index] = widthMeasureSpec;
+        heightSpecs[index] = heightMeasureSpec;
+        versions[index] = version;
+        measuredWidths[index] = measuredWidth;
+        measuredHeights[index] = measuredHeight;
+        Arrays.fill(slotSizes[index], 0);
+        current = index;
+        return index;
+    }
+
+    void setSlotSize(int index, int slot, @Px int width, @Px int height) {
+        slotSizes[index][slot * 2] = width;
+        slotSizes[index][slot * 2 + 1] = height;
+    }
+
+    @Px
+    int getSlotWidth(int index, int slot) {
+        return slotSizes[index][slot * 2];
+    }
+
+    @Px
+    int getSlotHeight(int index, int slot) {
+        return slotSizes[index][slot * 2 + 1];
+    }
+
+    @Px
+    int getMeasuredWidth(int index) {
+        return measuredWidths[index];
+    }
+
+    @Px
+    int getMeasuredHeight(int index) {
+        return measuredHeights[index];
+    }
+
+    boolean isCurrent(int index) {
+        return current == index;
+    }
+
+    void setCurrent(int index) {
+        current = index;
+    }
+}
@@ -0,0 +1,73 @@
+package com.nightkyb.listtile;
+
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.text.PrecomputedTextCompat;
+
+/**
+ * 一个ListTile的title、subtitle、extra文本的预计算结果，由{@link ListTileTextPrecomputer}生成。
+ *
+ * @author nightkyb
+ */
+public final class PrecomputedTileText {
+    @Nullable
+    private final PrecomputedTextCompat title;
+    @Nullable
+    private final PrecomputedTextCompat subtitle;
+    @Nullable
+    private final PrecomputedTextCompat extra;
+    /**
+     * 预计算时extra是否为文本类型，为图片类型时不修改extra
+     */
+    private final boolean extraText;
+
+    PrecomputedTileText(@Nullable PrecomputedTextCompat title, @Nullable PrecomputedTextCompat subtitle,
+                        @Nullable PrecomputedTextCompat extra, boolean extraText) {
+        this.title = title;
+        this.subtitle = subtitle;
+        this.extra = extra;
+        this.extraText = extraText;
+    }
+
+    @Nullable
+    public PrecomputedTextCompat getTitle() {
+        return title;
+    }
+
+    @Nullable
+    public PrecomputedTextCompat getSubtitle() {
+        return subtitle;
+    }
+
+    @Nullable
+    public PrecomputedTextCompat getExtra() {
+        return extra;
+    }
+
+    /**
+     * 预计算结果是否与给定的文本一致，数据变化后预计算结果不能再使用
+     */
+    public boolean matches(@Nullable CharSequence title, @Nullable CharSequence subtitle, @Nullable CharSequence extra) {
+        return TextUtils.equals(this.title, title)
+                && TextUtils.equals(this.subtitle, subtitle)
+                && TextUtils.equals(this.extra, extra);
+    }
+
+    /**
+     * 将预计算结果设置到ListTile，subtitle和extra为null时隐藏，复用的ListTile不会残留上一项的文本。
+     * title为null时保持不变，extra为图片类型时保持不变
+     */
+    public void applyTo(@NonNull ListTile tile) {
+        ListTile.Editor editor = tile.edit();
+        if (title != null) {
+            editor.title(title);
+        }
+        editor.subtitle(subtitle);
+        if (extraText) {
+            editor.extra(extra);
+        }
+        editor.apply();
+    }
+}
@@ -0,0 +1,182 @@
+package com.nightkyb.listtile;
+
+import android.graphics.Typeface;
+import android.text.Layout;
+import android.text.TextPaint;
+import android.util.LruCache;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.Px;
+
+import java.util.Locale;
+
+/**
+ * 进程内共享的flat模式文本排版缓存，以(文本, 可用宽度, 画笔的字号、字体等排版参数, 颜色, 最大行数, 对齐方式)为键保存{@link Layout}。
+ * <p>
+ * 大量列表项重复使用相同的文本（例如状态标签、"设置"类的标题）时，重新绑定可以直接复用已有的排版结果，
+ * 不需要重新测量和断行。只缓存{@link String}类型的文本，带样式的文本可能被修改，不进入缓存。
+ * 不同主题和配置的排版结果以画笔参数区分，配置变化和内存不足时随{@link ListTileStyleCache#clear()}一起清空。
+ *
+ * @author nightkyb
+ */
+public final class TextLayoutCache {
+    private static final int MAX_SIZE = 512;
+
+    private static final LruCache<Key, Layout> CACHE = new LruCache<>(MAX_SIZE);
+
+    private TextLayoutCache() {
+    }
+
+    /**
+     * 缓存命中次数
+     */
+    public static int getHitCount() {
+        return CACHE.hitCount();
+    }
+
+    /**
+     * 缓存未命中次数
+     */
+    public static int getMissCount() {
+        return CACHE.missCount();
+    }
+
+    /**
+     * 当前缓存的排版数量
+     */
+    public static int size() {
+        return CACHE.size();
+    }
+
+    /**
+     * 清空所有缓存的排版
+     */
+    public static void clear() {
+        CACHE.evictAll();
+    }
+
+    @Nullable
+    static Layout get(@NonNull Key key) {
+        return CACHE.get(key);
+    }
+
+    static void put(@NonNull Key key, @NonNull Layout layout) {
+        CACHE.put(key, layout);
+    }
+
+    /**
+     * 缓存键，查询时每个{@link TextSlot}复用自己的实例，放入缓存时使用{@link #copy()}。
+     * <p>
+     * 键中记录的是画笔解析后的值而不是文本外观的资源ID，同一文本外观在不同的主题、屏幕密度和字体缩放下
+     * 可能解析为不同的字号和字体，不会误用其他配置下的排版结果。
+     */
+    static final class Key {
+        private String text;
+        @Px
+        private int maxWidth;
+        private float textSize;
+        @Nullable
+        private Typeface typeface;
+        private float textScaleX;
+        private float textSkewX;
+        private float letterSpacing;
+        @Nullable
+        private String fontFeatureSettings;
+        @Nullable
+        private Locale textLocale;
+        private int flags;
+        @ColorInt
+        private int color;
+        private int maxLines;
+        private Layout.Alignment alignment;
+        private int hash;
+
+        void set(@NonNull String text, @Px int maxWidth, @NonNull TextPaint paint, int maxLines,
+                 @NonNull Layout.Alignment alignment) {
+            this.text = text;
+            this.maxWidth = maxWidth;
+            this.textSize = paint.getTextSize();
+            this.typeface = paint.getTypeface();
+            this.textScaleX = paint.getTextScaleX();
+            this.textSkewX = paint.getTextSkewX();
+            this.letterSpacing = paint.getLetterSpacing();
+            this.fontFeatureSettings = paint.getFontFeatureSettings();
+            this.textLocale = paint.getTextLocale();
+            this.flags = paint.getFlags();
+            this.color = paint.getColor();
+            this.maxLines = maxLines;
+            this.alignment = alignment;
+
+            int result = text.hashCode();
+            result = 31 * result + maxWidth;
+            result = 31 * result + Float.floatToIntBits(textSize);
+            result = 31 * result + (typeface != null ? typeface.hashCode() : 0);
+            result = 31 * result + Float.floatToIntBits(textScaleX);
+            result = 31 * result + Float.floatToIntBits(textSkewX);
+            result = 31 * result + Float.floatToIntBits(letterSpacing);
+            result = 31 * result + (fontFeatureSettings != null ? fontFeatureSettings.hashCode() : 0);
+            result = 31 * result + (textLocale != null ? textLocale.hashCode() : 0);
+            result = 31 * result + flags;
+            result = 31 * result + color;
+            result = 31 * result + maxLines;
+            result = 31 * result + alignment.hashCode();
+            hash = result;
+        }
+
+        @NonNull
+        Key copy() {
+            Key key = new Key();
+            key.text = text;
+            key.maxWidth = maxWidth;
+            key.textSize = textSize;
+            key.typeface = typeface;
+            key.textScaleX = textScaleX;
+            key.textSkewX = textSkewX;
+            key.letterSpacing = letterSpacing;
+            key.fontFeatureSettings = fontFeatureSettings;
+            key.textLocale = textLocale;
+            key.flags = flags;
+            key.color = color;
+            key.maxLines = maxLines;
+            key.alignment = alignment;
+            key.hash = hash;
+            return key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key that = (Key) o;
+            return hash == that.hash
+                    && maxWidth == that.maxWidth
+                    && Float.compare(textSize, that.textSize) == 0
+                    && Float.compare(textScaleX, that.textScaleX) == 0
+                    && Float.compare(textSkewX, that.textSkewX) == 0
+                    && Float.compare(letterSpacing, that.letterSpacing) == 0
+                    && flags == that.flags
+                    && color == that.color
+                    && maxLines == that.maxLines
+                    && alignment == that.alignment
+                    && equals(typeface, that.typeface)
+                    && equals(fontFeatureSettings, that.fontFeatureSettings)
+                    && equals(textLocale, that.textLocale)
+                    && text.equals(that.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        private static boolean equals(@Nullable Object a, @Nullable Object b) {
+            return a == null ? b == null : a.equals(b);
+        }
+    }
+}
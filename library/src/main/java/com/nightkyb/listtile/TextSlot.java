@@ -0,0 +1,211 @@
+package com.nightkyb.listtile;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.os.Build;
+import android.text.BoringLayout;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.text.TextUtils;
+import android.text.style.TextAppearanceSpan;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+import androidx.annotation.Px;
+import androidx.annotation.StyleRes;
+import androidx.core.text.PrecomputedTextCompat;
+
+/**
+ * flat模式下的文本槽位，直接持有{@link Layout}并绘制到画布上，用于替代{@link android.widget.TextView}。
+ * 测量规则与wrap_content的TextView保持一致：宽度为文本期望宽度与可用宽度的较小值，单行时末尾省略。
+ * {@link String}类型文本的排版结果从{@link TextLayoutCache}中获取。
+ *
+ * @author nightkyb
+ */
+final class TextSlot {
+    /**
+     * TextView默认字号
+     */
+    private static final int DEFAULT_TEXT_SIZE_SP = 14;
+    /**
+     * TextView默认的换行策略（API 23+），与非flat模式的换行位置保持一致
+     */
+    private static final int BREAK_STRATEGY = Layout.BREAK_STRATEGY_HIGH_QUALITY;
+    /**
+     * TextView默认的断字频率（API 23+），Android 13起默认不断字
+     */
+    private static final int HYPHENATION_FREQUENCY = Build.VERSION.SDK_INT >= 33
+            ? Layout.HYPHENATION_FREQUENCY_NONE : Layout.HYPHENATION_FREQUENCY_NORMAL;
+
+    private final TextPaint paint;
+    private final int maxLines;
+    private final Layout.Alignment alignment;
+
+    private CharSequence text = "";
+    private boolean visible = true;
+    private Layout layout;
+    /**
+     * 构建当前Layout时的可用宽度
+     */
+    @Px
+    private int layoutMaxWidth;
+    private final TextLayoutCache.Key lookupKey = new TextLayoutCache.Key();
+    @Px
+    private int left;
+    @Px
+    private int top;
+
+    TextSlot(@NonNull Context context, @StyleRes int textAppearance, @ColorInt int color,
+             int maxLines, @NonNull Layout.Alignment alignment) {
+        this.maxLines = maxLines;
+        this.alignment = alignment;
+
+        DisplayMetrics dm = context.getResources().getDisplayMetrics();
+        paint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        paint.density = dm.density;
+        paint.setTextSize(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, DEFAULT_TEXT_SIZE_SP, dm));
+        if (textAppearance != 0) {
+            new TextAppearanceSpan(context, textAppearance).updateMeasureState(paint);
+        }
+        paint.setColor(color);
+        ListTileStyleCache.registerCallbacks(context);
+    }
+
+    @NonNull
+    CharSequence getText() {
+        return text;
+    }
+
+    void setText(CharSequence text) {
+        this.text = text == null ? "" : text;
+        layout = null;
+    }
+
+    boolean isVisible() {
+        return visible;
+    }
+
+    void setVisible(boolean visible) {
+        this.visible = visible;
+    }
+
+    /**
+     * 与{@link #buildLayout(int)}使用的排版参数一致的预计算参数
+     */
+    @NonNull
+    PrecomputedTextCompat.Params getTextMetricsParams() {
+        // 预计算在后台线程进行，使用画笔的副本
+        PrecomputedTextCompat.Params.Builder builder = new PrecomputedTextCompat.Params.Builder(new TextPaint(paint));
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            builder.setBreakStrategy(BREAK_STRATEGY)
+                    .setHyphenationFrequency(HYPHENATION_FREQUENCY);
+        }
+        return builder.build();
+    }
+
+    void setColor(@ColorInt int color) {
+        paint.setColor(color);
+        layout = null;
+    }
+
+    /**
+     * 按可用宽度测量文本，必要时重建Layout。
+     *
+     * @param maxWidth 最大可用宽度
+     */
+    void measure(@Px int maxWidth) {
+        maxWidth = Math.max(0, maxWidth);
+        if (layout != null && layoutMaxWidth == maxWidth) {
+            return;
+        }
+        layoutMaxWidth = maxWidth;
+
+        if (!(text instanceof String)) {
+            layout = buildLayout(paint, maxWidth);
+            return;
+        }
+
+        lookupKey.set((String) text, maxWidth, paint, maxLines, alignment);
+        layout = TextLayoutCache.get(lookupKey);
+        if (layout == null) {
+            // 缓存的Layout会被其他ListTile共享，使用画笔的副本
+            layout = buildLayout(new TextPaint(paint), maxWidth);
+            TextLayoutCache.put(lookupKey.copy(), layout);
+        }
+    }
+
+    @Px
+    int getWidth() {
+        return layout == null ? 0 : layout.getWidth();
+    }
+
+    @Px
+    int getHeight() {
+        if (layout == null) {
+            return 0;
+        }
+        return layout.getLineTop(Math.min(layout.getLineCount(), maxLines));
+    }
+
+    void setPosition(@Px int left, @Px int top) {
+        this.left = left;
+        this.top = top;
+    }
+
+    void draw(@NonNull Canvas canvas) {
+        if (layout == null) {
+            return;
+        }
+
+        int saveCount = canvas.save();
+        canvas.translate(left, top);
+        canvas.clipRect(0, 0, getWidth(), getHeight());
+        layout.draw(canvas);
+        canvas.restoreToCount(saveCount);
+    }
+
+    /**
+     * @param maxWidth 最大可用宽度，Layout的宽度为文本期望宽度与可用宽度的较小值
+     */
+    @NonNull
+    private Layout buildLayout(@NonNull TextPaint paint, @Px int maxWidth) {
+        boolean singleLine = maxLines == 1;
+
+        if (singleLine) {
+            // 单行且不含双向文本时使用开销更小的BoringLayout
+            BoringLayout.Metrics metrics = BoringLayout.isBoring(text, paint);
+            if (metrics != null) {
+                if (metrics.width <= maxWidth) {
+                    return BoringLayout.make(text, paint, metrics.width, alignment, 1f, 0f, metrics, true);
+                }
+                return BoringLayout.make(text, paint, maxWidth, alignment, 1f, 0f, metrics, true,
+                        TextUtils.TruncateAt.END, maxWidth);
+            }
+        }
+
+        int desiredWidth = (int) Math.ceil(Layout.getDesiredWidth(text, paint));
+        int width = Math.min(desiredWidth, maxWidth);
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            StaticLayout.Builder builder = StaticLayout.Builder.obtain(text, 0, text.length(), paint, width)
+                    .setAlignment(alignment)
+                    .setIncludePad(true)
+                    .setBreakStrategy(BREAK_STRATEGY)
+                    .setHyphenationFrequency(HYPHENATION_FREQUENCY);
+            if (singleLine) {
+                builder.setMaxLines(1)
+                        .setEllipsize(TextUtils.TruncateAt.END)
+                        .setEllipsizedWidth(width);
+            }
+            return builder.build();
+        }
+
+        CharSequence source = singleLine ? TextUtils.ellipsize(text, paint, width, TextUtils.TruncateAt.END) : text;
+        //noinspection deprecation
+        return new StaticLayout(source, paint, width, alignment, 1f, 0f, true);
+    }
+}
@@ -0,0 +1,143 @@
+package com.nightkyb.listtile;
+
+import android.graphics.Canvas;
+import android.graphics.Picture;
+import android.graphics.RenderNode;
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RequiresApi;
+
+/**
+ * ListTile内容的显示列表缓存，内容版本和尺寸不变时直接回放录制结果，不再遍历子View重新绘制。
+ * <p>
+ * API 29及以上的硬件加速画布使用{@link RenderNode}，其他情况使用{@link Picture}。
+ * API 23以下的硬件加速画布不支持{@link Canvas#drawPicture(Picture)}，此时不使用缓存。
+ *
+ * @author nightkyb
+ */
+abstract class TileDisplayList {
+    private static final int INVALID_VERSION = -1;
+
+    private int version = INVALID_VERSION;
+    private int width;
+    private int height;
+
+    @NonNull
+    static TileDisplayList create() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            return new RenderNodeDisplayList();
+        }
+        return new PictureDisplayList();
+    }
+
+    /**
+     * 是否可以在目标画布上回放
+     */
+    abstract boolean canDraw(@NonNull Canvas canvas);
+
+    /**
+     * 录制结果是否仍然有效
+     */
+    final boolean isValid(int version, int width, int height) {
+        return this.version == version && this.width == width && this.height == height;
+    }
+
+    /**
+     * 使录制结果失效，下次绘制时重新录制
+     */
+    final void invalidate() {
+        version = INVALID_VERSION;
+    }
+
+    @NonNull
+    final Canvas beginRecording(int width, int height) {
+        this.width = width;
+        this.height = height;
+        return onBeginRecording(width, height);
+    }
+
+    final void endRecording(int version) {
+        onEndRecording();
+        this.version = version;
+    }
+
+    /**
+     * 释放录制结果
+     */
+    void release() {
+        invalidate();
+    }
+
+    @NonNull
+    abstract Canvas onBeginRecording(int width, int height);
+
+    abstract void onEndRecording();
+
+    abstract void draw(@NonNull Canvas canvas);
+
+    @RequiresApi(Build.VERSION_CODES.Q)
+    private static final class RenderNodeDisplayList extends TileDisplayList {
+        private final RenderNode renderNode = new RenderNode("ListTile");
+
+        @Override
+        boolean canDraw(@NonNull Canvas canvas) {
+            return canvas.isHardwareAccelerated();
+        }
+
+        @NonNull
+        @Override
+        Canvas onBeginRecording(int width, int height) {
+            renderNode.setPosition(0, 0, width, height);
+            return renderNode.beginRecording(width, height);
+        }
+
+        @Override
+        void onEndRecording() {
+            renderNode.endRecording();
+        }
+
+        @Override
+        void draw(@NonNull Canvas canvas) {
+            canvas.drawRenderNode(renderNode);
+        }
+
+        @Override
+        void release() {
+            super.release();
+            renderNode.discardDisplayList();
+        }
+    }
+
+    private static final class PictureDisplayList extends TileDisplayList {
+        private Picture picture = new Picture();
+
+        @Override
+        boolean canDraw(@NonNull Canvas canvas) {
+            return !canvas.isHardwareAccelerated() || Build.VERSION.SDK_INT >= Build.VERSION_CODES.M;
+        }
+
+        @NonNull
+        @Override
+        Canvas onBeginRecording(int width, int height) {
+            return picture.beginRecording(width, height);
+        }
+
+        @Override
+        void onEndRecording() {
+            picture.endRecording();
+        }
+
+        @Override
+        void draw(@NonNull Canvas canvas) {
+            canvas.drawPicture(picture);
+        }
+
+        @Override
+        void release() {
+            super.release();
+            // Picture没有释放接口，替换为空的实例
+            picture = new Picture();
+        }
+    }
+}
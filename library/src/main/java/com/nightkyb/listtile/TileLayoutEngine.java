@@ -0,0 +1,355 @@
+package com.nightkyb.listtile;
+
+/**
+ * ListTile的布局计算，只依赖槽位尺寸、间距和padding，不依赖Android框架，可以在JVM上测试和基准测试。
+ * <p>
+ * 使用方式：通过{@link #setSlot(int, int, int)}设置各个槽位测量后的尺寸，
+ * 再调用{@link #measureWidth()}、{@link #resolveOverflow(int)}、{@link #measureHeight()}计算尺寸，
+ * 最后调用{@link #layout(int, int)}计算各个槽位的位置。实例可以重复使用，计算过程不分配内存。
+ * <p>
+ * 宽度超出时，title/subtitle与extra按照{@link #setOverflowPolicy(int)}设置的策略一次性分配宽度，
+ * 并保证各自不小于{@link #setMinWidths(int, int)}设置的最小宽度。
+ * <p>
+ * 通过{@link #setColumnWidths(int, int)}设置多个ListTile共享的列宽后，trailing和extra按列宽占用空间，使各行对齐。
+ *
+ * @author nightkyb
+ */
+public final class TileLayoutEngine {
+    // 槽位
+    public static final int LEADING = 0;
+    public static final int TRAILING = 1;
+    public static final int TITLE = 2;
+    public static final int SUBTITLE = 3;
+    public static final int EXTRA = 4;
+    private static final int SLOT_COUNT = 5;
+
+    // 溢出策略
+    /**
+     * 较宽的一方先裁剪，不足时再裁剪另一方
+     */
+    public static final int POLICY_WIDER_SHRINKS = 0;
+    /**
+     * 保留title，先裁剪extra
+     */
+    public static final int POLICY_KEEP_TITLE = 1;
+    /**
+     * 保留extra，先裁剪title
+     */
+    public static final int POLICY_KEEP_EXTRA = 2;
+    /**
+     * 按照可裁剪的宽度等比例裁剪两者
+     */
+    public static final int POLICY_PROPORTIONAL = 3;
+
+    private final boolean[] present = new boolean[SLOT_COUNT];
+    private final int[] widths = new int[SLOT_COUNT];
+    private final int[] heights = new int[SLOT_COUNT];
+    private final int[] lefts = new int[SLOT_COUNT];
+    private final int[] tops = new int[SLOT_COUNT];
+
+    private int paddingLeft;
+    private int paddingTop;
+    private int paddingRight;
+    private int paddingBottom;
+
+    private int leadingRightMargin;
+    private int trailingLeftMargin;
+    private int subtitleTopMargin;
+    private int extraLeftMargin;
+
+    private int overflowPolicy = POLICY_WIDER_SHRINKS;
+    private int titleMinWidth;
+    private int extraMinWidth;
+
+    // 对齐组共享的列宽
+    private int trailingColumnWidth;
+    private int extraColumnWidth;
+
+    // 溢出时分配的宽度
+    private int titleWidth;
+    private int extraWidth;
+
+    public void setPadding(int left, int top, int right, int bottom) {
+        paddingLeft = left;
+        paddingTop = top;
+        paddingRight = right;
+        paddingBottom = bottom;
+    }
+
+    public void setMargins(int leadingRightMargin, int trailingLeftMargin, int subtitleTopMargin, int extraLeftMargin) {
+        this.leadingRightMargin = leadingRightMargin;
+        this.trailingLeftMargin = trailingLeftMargin;
+        this.subtitleTopMargin = subtitleTopMargin;
+        this.extraLeftMargin = extraLeftMargin;
+    }
+
+    public void setOverflowPolicy(int overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * 设置溢出时title/subtitle和extra至少保留的宽度，内容本身更窄时以内容宽度为准
+     */
+    public void setMinWidths(int titleMinWidth, int extraMinWidth) {
+        this.titleMinWidth = titleMinWidth;
+        this.extraMinWidth = extraMinWidth;
+    }
+
+    /**
+     * 设置对齐组共享的列宽，为0时不对齐。trailing和extra至少占用列宽；
+     * 没有trailing但存在extra时同样空出trailing列，使extra的右边界与其他行对齐。
+     * 溢出时先让出extra列中多余的空白，再按照溢出策略裁剪。
+     */
+    public void setColumnWidths(int trailingColumnWidth, int extraColumnWidth) {
+        this.trailingColumnWidth = trailingColumnWidth;
+        this.extraColumnWidth = extraColumnWidth;
+    }
+
+    /**
+     * 设置槽位测量后的尺寸，槽位视为存在
+     */
+    public void setSlot(int slot, int width, int height) {
+        present[slot] = true;
+        widths[slot] = width;
+        heights[slot] = height;
+    }
+
+    /**
+     * 移除槽位，不存在的槽位及其间距不参与计算
+     */
+    public void clearSlot(int slot) {
+        present[slot] = false;
+        widths[slot] = 0;
+        heights[slot] = 0;
+        lefts[slot] = 0;
+        tops[slot] = 0;
+    }
+
+    public boolean hasSlot(int slot) {
+        return present[slot];
+    }
+
+    public int getWidth(int slot) {
+        return widths[slot];
+    }
+
+    public int getHeight(int slot) {
+        return heights[slot];
+    }
+
+    /**
+     * {@link #layout(int, int)}之后槽位相对于ListTile的左边界
+     */
+    public int getLeft(int slot) {
+        return lefts[slot];
+    }
+
+    /**
+     * {@link #layout(int, int)}之后槽位相对于ListTile的上边界
+     */
+    public int getTop(int slot) {
+        return tops[slot];
+    }
+
+    /**
+     * title和subtitle的较大宽度
+     */
+    private int getMaxTitleWidth() {
+        return Math.max(widths[TITLE], present[SUBTITLE] ? widths[SUBTITLE] : 0);
+    }
+
+    /**
+     * trailing列占用的宽度，包括间距
+     */
+    private int getTrailingSpace() {
+        if (present[TRAILING]) {
+            return Math.max(widths[TRAILING], trailingColumnWidth) + trailingLeftMargin;
+        }
+        if (present[EXTRA] && trailingColumnWidth > 0) {
+            return trailingColumnWidth + trailingLeftMargin;
+        }
+        return 0;
+    }
+
+    /**
+     * extra列的宽度，不包括间距
+     */
+    private int getExtraColumnWidth() {
+        return present[EXTRA] ? Math.max(widths[EXTRA], extraColumnWidth) : 0;
+    }
+
+    /**
+     * 所有槽位横向排列需要的宽度，包括间距和padding
+     */
+    public int measureWidth() {
+        int width = 0;
+        if (present[LEADING]) {
+            width += widths[LEADING] + leadingRightMargin;
+        }
+        width += getTrailingSpace();
+        width += getMaxTitleWidth();
+        if (present[EXTRA]) {
+            width += getExtraColumnWidth() + extraLeftMargin;
+        }
+        return width + paddingLeft + paddingRight;
+    }
+
+    /**
+     * 所有槽位需要的高度，title和subtitle纵向排列，其余槽位与之并列，包括padding
+     */
+    public int measureHeight() {
+        int height = 0;
+        if (present[LEADING]) {
+            height = Math.max(height, heights[LEADING]);
+        }
+        if (present[TRAILING]) {
+            height = Math.max(height, heights[TRAILING]);
+        }
+        int titleHeight = heights[TITLE];
+        if (present[SUBTITLE]) {
+            titleHeight += heights[SUBTITLE] + subtitleTopMargin;
+        }
+        height = Math.max(height, titleHeight);
+        if (present[EXTRA]) {
+            height = Math.max(height, heights[EXTRA]);
+        }
+        return height + paddingTop + paddingBottom;
+    }
+
+    /**
+     * 宽度超过最大可用空间时，按照溢出策略在title/subtitle与extra之间分配超出的宽度
+     *
+     * @param widthSize 最大可用宽度
+     * @return 是否需要裁剪内容，为true时通过{@link #getTitleWidth()}、{@link #getExtraWidth()}获取分配后的宽度并重新测量
+     */
+    public boolean resolveOverflow(int widthSize) {
+        final int maxTitleWidth = getMaxTitleWidth();
+        final int maxExtraWidth = present[EXTRA] ? widths[EXTRA] : 0;
+        final int extraColumnWidth = getExtraColumnWidth();
+        titleWidth = maxTitleWidth;
+        extraWidth = extraColumnWidth;
+
+        int excess = measureWidth() - widthSize;
+        if (excess <= 0) {
+            return false;
+        }
+
+        // 先让出extra列中多余的空白，不需要裁剪内容
+        final int columnPadding = Math.min(excess, extraColumnWidth - maxExtraWidth);
+        extraWidth -= columnPadding;
+        excess -= columnPadding;
+        if (excess == 0) {
+            return false;
+        }
+
+        // 各自可以让出的宽度
+        final int titleShrinkable = maxTitleWidth - Math.min(maxTitleWidth, titleMinWidth);
+        final int extraShrinkable = maxExtraWidth - Math.min(maxExtraWidth, extraMinWidth);
+
+        int titleShrink;
+        int extraShrink;
+        switch (overflowPolicy) {
+            case POLICY_KEEP_TITLE:
+                extraShrink = Math.min(excess, extraShrinkable);
+                titleShrink = Math.min(excess - extraShrink, titleShrinkable);
+                break;
+            case POLICY_KEEP_EXTRA:
+                titleShrink = Math.min(excess, titleShrinkable);
+                extraShrink = Math.min(excess - titleShrink, extraShrinkable);
+                break;
+            case POLICY_PROPORTIONAL:
+                int shrinkable = titleShrinkable + extraShrinkable;
+                if (shrinkable <= excess) {
+                    titleShrink = titleShrinkable;
+                    extraShrink = extraShrinkable;
+                } else {
+                    titleShrink = (int) ((long) excess * titleShrinkable / shrinkable);
+                    extraShrink = Math.min(excess - titleShrink, extraShrinkable);
+                    // 取整后剩余的部分由title承担
+                    titleShrink = Math.min(excess - extraShrink, titleShrinkable);
+                }
+                break;
+            case POLICY_WIDER_SHRINKS:
+            default:
+                if (maxTitleWidth > maxExtraWidth) {
+                    titleShrink = Math.min(excess, titleShrinkable);
+                    extraShrink = Math.min(excess - titleShrink, extraShrinkable);
+                } else {
+                    extraShrink = Math.min(excess, extraShrinkable);
+                    titleShrink = Math.min(excess - extraShrink, titleShrinkable);
+                }
+                break;
+        }
+
+        titleWidth = maxTitleWidth - titleShrink;
+        extraWidth = maxExtraWidth - extraShrink;
+        return titleShrink > 0 || extraShrink > 0;
+    }
+
+    /**
+     * {@link #resolveOverflow(int)}之后title和subtitle的最大宽度
+     */
+    public int getTitleWidth() {
+        return titleWidth;
+    }
+
+    /**
+     * {@link #resolveOverflow(int)}之后extra的最大宽度
+     */
+    public int getExtraWidth() {
+        return extraWidth;
+    }
+
+    public boolean isTitleShrunk() {
+        return titleWidth < getMaxTitleWidth();
+    }
+
+    public boolean isExtraShrunk() {
+        return present[EXTRA] && extraWidth < widths[EXTRA];
+    }
+
+    /**
+     * 计算各个槽位的位置：leading、title/subtitle从左向右排列，trailing、extra从右向左排列，所有槽位纵向居中
+     *
+     * @param width  ListTile的宽度
+     * @param height ListTile的高度
+     */
+    public void layout(int width, int height) {
+        final int parentLeft = paddingLeft;
+        final int parentRight = width - paddingRight;
+        final int parentTop = paddingTop;
+        final int parentBottom = height - paddingBottom;
+        final int parentHeight = parentBottom - parentTop;
+
+        int childLeft = parentLeft;
+
+        if (present[LEADING]) {
+            place(LEADING, childLeft, parentTop + (parentHeight - heights[LEADING]) / 2);
+            childLeft += widths[LEADING] + leadingRightMargin;
+        }
+
+        if (!present[SUBTITLE]) {
+            place(TITLE, childLeft, parentTop + (parentHeight - heights[TITLE]) / 2);
+        } else {
+            int childTop = parentTop + (parentHeight - heights[TITLE] - heights[SUBTITLE] - subtitleTopMargin) / 2;
+            place(TITLE, childLeft, childTop);
+            place(SUBTITLE, childLeft, childTop + heights[TITLE] + subtitleTopMargin);
+        }
+
+        int childRight = parentRight;
+
+        if (present[TRAILING]) {
+            place(TRAILING, childRight - widths[TRAILING], parentTop + (parentHeight - heights[TRAILING]) / 2);
+        }
+        childRight -= getTrailingSpace();
+
+        if (present[EXTRA]) {
+            place(EXTRA, childRight - widths[EXTRA], parentTop + (parentHeight - heights[EXTRA]) / 2);
+        }
+    }
+
+    private void place(int slot, int left, int top) {
+        lefts[slot] = left;
+        tops[slot] = top;
+    }
+}
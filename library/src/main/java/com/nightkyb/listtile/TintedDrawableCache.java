@@ -0,0 +1,106 @@
+package com.nightkyb.listtile;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.DrawableRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+import androidx.core.graphics.drawable.DrawableCompat;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * 进程内共享的着色Drawable缓存，以(主题, Drawable资源, 着色Color)为键，保存着色后的{@link Drawable.ConstantState}。
+ * 使用相同图标和颜色的ListTile共享同一份着色状态，而不是各自持有一个mutate()后的副本。
+ * <p>
+ * 与{@link ListTileStyleCache}相同，主题作为弱引用键：着色状态来自创建时的Resources和主题（屏幕密度、主题属性），
+ * 不同主题和配置（例如createConfigurationContext()、其他显示器）各自缓存。
+ *
+ * @author nightkyb
+ */
+final class TintedDrawableCache {
+    /**
+     * 每个主题最多缓存的着色状态数量
+     */
+    private static final int MAX_SIZE_PER_THEME = 64;
+
+    private static final Map<Resources.Theme, Map<Long, Drawable.ConstantState>> CACHE = new WeakHashMap<>();
+
+    private TintedDrawableCache() {
+    }
+
+    /**
+     * 获取着色后的Drawable
+     *
+     * @return 新的Drawable实例，与其他相同主题、相同资源、相同颜色的实例共享着色状态；资源不存在时返回null
+     */
+    @Nullable
+    static Drawable get(@NonNull Context context, @DrawableRes int resId, @ColorInt int color) {
+        ListTileStyleCache.registerCallbacks(context);
+        final Resources.Theme theme = context.getTheme();
+        final long key = ((long) resId << 32) | (color & 0xFFFFFFFFL);
+
+        Drawable.ConstantState state;
+        synchronized (CACHE) {
+            Map<Long, Drawable.ConstantState> states = CACHE.get(theme);
+            state = states == null ? null : states.get(key);
+        }
+        if (state != null) {
+            return state.newDrawable(context.getResources(), theme);
+        }
+
+        Drawable drawable = ContextCompat.getDrawable(context, resId);
+        if (drawable == null) {
+            return null;
+        }
+
+        Drawable tinted = tint(drawable, color);
+        state = tinted.getConstantState();
+        if (state != null) {
+            synchronized (CACHE) {
+                Map<Long, Drawable.ConstantState> states = CACHE.get(theme);
+                if (states == null) {
+                    states = new LinkedHashMap<Long, Drawable.ConstantState>(16, 0.75f, true) {
+                        @Override
+                        protected boolean removeEldestEntry(Map.Entry<Long, Drawable.ConstantState> eldest) {
+                            return size() > MAX_SIZE_PER_THEME;
+                        }
+                    };
+                    CACHE.put(theme, states);
+                }
+                states.put(key, state);
+            }
+        }
+        return tinted;
+    }
+
+    /**
+     * 对目标Drawable进行着色
+     *
+     * @param drawable 目标Drawable
+     * @param color    着色Color
+     * @return 着色处理后的Drawable
+     */
+    @NonNull
+    static Drawable tint(@NonNull Drawable drawable, @ColorInt int color) {
+        // 获取此drawable的共享状态实例
+        Drawable.ConstantState state = drawable.getConstantState();
+        // 对drawable进行重新实例化、包装、可变操作
+        Drawable wrappedDrawable = DrawableCompat.wrap(state == null ? drawable : state.newDrawable()).mutate();
+        // 进行着色
+        DrawableCompat.setTint(wrappedDrawable, color);
+        return wrappedDrawable;
+    }
+
+    static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.nightkyb.listtile;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * 统计当前线程在一段代码中分配的字节数，依赖HotSpot的{@link com.sun.management.ThreadMXBean}，不支持时跳过测试。
+ *
+ * @author nightkyb
+ */
+final class Allocations {
+    private Allocations() {
+    }
+
+    /**
+     * 先执行warmUp次预热（类加载、缓存填充、Robolectric的方法分派缓存），再统计之后iterations次执行的分配
+     *
+     * @return 分配的字节数，已扣除统计本身的开销
+     */
+    static long measure(Runnable action, int warmUp, int iterations) {
+        java.lang.management.ThreadMXBean mxBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(mxBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) mxBean;
+        assumeTrue(bean.isThreadAllocatedMemorySupported());
+        bean.setThreadAllocatedMemoryEnabled(true);
+
+        for (int i = 0; i < warmUp; i++) {
+            action.run();
+        }
+
+        final long threadId = Thread.currentThread().getId();
+        long start = bean.getThreadAllocatedBytes(threadId);
+        final long overhead = bean.getThreadAllocatedBytes(threadId) - start;
+
+        start = bean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            action.run();
+        }
+        final long end = bean.getThreadAllocatedBytes(threadId);
+        return Math.max(0, end - start - overhead);
+    }
+}
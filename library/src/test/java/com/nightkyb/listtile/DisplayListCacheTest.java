@@ -0,0 +1,88 @@
+package com.nightkyb.listtile;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.RippleDrawable;
+import android.view.View;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 背景的状态变化和动画不应该使显示列表的录制结果失效，flat模式下图片的变化需要重新录制
+ *
+ * @author nightkyb
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class DisplayListCacheTest {
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+    }
+
+    @Test
+    public void pressedRippleKeepsRecording() {
+        for (boolean flat : new boolean[]{false, true}) {
+            ListTile tile = createTile(flat);
+            Drawable ripple = new RippleDrawable(ColorStateList.valueOf(Color.GRAY), null, null);
+            tile.setBackground(ripple);
+            draw(tile);
+            assertTrue(tile.isDisplayListValid());
+
+            tile.setPressed(true);
+            // 模拟水波纹动画的下一帧
+            ripple.invalidateSelf();
+
+            assertTrue(tile.isDisplayListValid());
+        }
+    }
+
+    @Test
+    public void flatIconInvalidationRerecords() {
+        ListTile tile = createTile(true);
+        Drawable leading = context.getDrawable(android.R.drawable.ic_menu_info_details);
+        tile.edit().leading(leading).apply();
+        draw(tile);
+        assertTrue(tile.isDisplayListValid());
+
+        // 例如AnimatedVectorDrawable的下一帧
+        leading.invalidateSelf();
+
+        assertFalse(tile.isDisplayListValid());
+    }
+
+    /**
+     * 库的默认样式没有设置lt_title，通过Builder设置
+     */
+    private ListTile createTile(boolean flat) {
+        ListTile tile = new ListTile(context, new ListTileStyle.Builder(context, ListTile.DEF_STYLE_RES)
+                .flat(flat)
+                .title("Wi-Fi")
+                .build());
+        tile.setDisplayListCacheEnabled(true);
+        return tile;
+    }
+
+    private static void draw(ListTile tile) {
+        tile.measure(View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        tile.layout(0, 0, tile.getMeasuredWidth(), tile.getMeasuredHeight());
+        Bitmap bitmap = Bitmap.createBitmap(tile.getWidth(), tile.getHeight(), Bitmap.Config.ARGB_8888);
+        tile.draw(new Canvas(bitmap));
+    }
+}
@@ -0,0 +1,56 @@
+package com.nightkyb.listtile;
+
+import android.graphics.Color;
+import android.text.SpannableString;
+import android.text.Spanned;
+import android.text.style.ForegroundColorSpan;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * API 28以下SpannableString没有按内容实现equals，重新生成的相同高亮也不应该被视为变化
+ *
+ * @author nightkyb
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 21)
+public class ListTileModelTest {
+    private final ForegroundColorSpan highlightSpan = new ForegroundColorSpan(Color.RED);
+
+    @Test
+    public void sameHighlightIsUnchanged() {
+        ListTileModel oldModel = model(highlight("Bluetooth", 0, 4), highlight("Connected", 2, 3));
+        ListTileModel newModel = model(highlight("Bluetooth", 0, 4), highlight("Connected", 2, 3));
+
+        assertEquals(0, ListTileModel.diff(oldModel, newModel));
+        assertEquals(oldModel, newModel);
+        assertEquals(oldModel.hashCode(), newModel.hashCode());
+    }
+
+    @Test
+    public void changedHighlightIsChanged() {
+        ListTileModel oldModel = model(highlight("Bluetooth", 0, 4), "Connected");
+
+        assertEquals(ListTileModel.CHANGED_TITLE,
+                ListTileModel.diff(oldModel, model(highlight("Bluetooth", 0, 5), "Connected")));
+        assertEquals(ListTileModel.CHANGED_TITLE,
+                ListTileModel.diff(oldModel, model("Bluetooth", "Connected")));
+        assertEquals(ListTileModel.CHANGED_SUBTITLE,
+                ListTileModel.diff(oldModel, model(highlight("Bluetooth", 0, 4), highlight("Connected", 0, 4))));
+    }
+
+    private CharSequence highlight(String text, int start, int length) {
+        SpannableString spannable = new SpannableString(text);
+        spannable.setSpan(highlightSpan, start, start + length, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        return spannable;
+    }
+
+    private static ListTileModel model(CharSequence title, CharSequence subtitle) {
+        return new ListTileModel.Builder().id(1).title(title).subtitle(subtitle).build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.nightkyb.listtile;
+
+import android.content.Context;
+import android.view.View;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 复用的ListTile绑定预计算结果后不应该残留上一项的文本
+ *
+ * @author nightkyb
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class PrecomputedTileTextTest {
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+    }
+
+    @Test
+    public void nullSubtitleAndExtraHidePreviousText() {
+        ListTile tile = createTile(false);
+        tile.edit().title("Wi-Fi").subtitle("Connected").extra("On").apply();
+
+        PrecomputedTileText text = ListTileTextPrecomputer.from(tile).precompute("Bluetooth", null, null);
+        assertTrue(text.matches("Bluetooth", null, null));
+        text.applyTo(tile);
+
+        assertEquals("Bluetooth", tile.getTitle().getText().toString());
+        assertEquals(View.GONE, tile.getSubtitle().getVisibility());
+        assertEquals(View.GONE, tile.getExtraText().getVisibility());
+    }
+
+    @Test
+    public void nullSubtitleHidesPreviousTextFlat() {
+        ListTile tile = createTile(true);
+        tile.edit().title("Wi-Fi").subtitle("Connected").apply();
+        ListTile expected = createTile(true);
+        expected.edit().title("Bluetooth").apply();
+
+        ListTileTextPrecomputer.from(tile).precompute("Bluetooth", null, null).applyTo(tile);
+
+        assertEquals(measureHeight(expected), measureHeight(tile));
+    }
+
+    @Test
+    public void extraImageIsKept() {
+        ListTile tile = createTile(false);
+        tile.edit().title("Wi-Fi").subtitle("Connected").extraImage(android.R.drawable.ic_menu_info_details).apply();
+
+        ListTileTextPrecomputer.from(tile).precompute("Bluetooth", null, null).applyTo(tile);
+
+        assertEquals(ListTile.ExtraType.IMAGE, tile.getExtraType());
+        assertEquals(View.VISIBLE, tile.getExtraImage().getVisibility());
+    }
+
+    /**
+     * 库的默认样式没有设置lt_title，通过Builder设置
+     */
+    private ListTile createTile(boolean flat) {
+        return new ListTile(context, new ListTileStyle.Builder(context, ListTile.DEF_STYLE_RES)
+                .flat(flat)
+                .title("Wi-Fi")
+                .build());
+    }
+
+    private static int measureHeight(ListTile tile) {
+        tile.measure(View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        return tile.getMeasuredHeight();
+    }
+}
@@ -0,0 +1,148 @@
+package com.nightkyb.listtile;
+
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+import android.view.View;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 重新绑定预热后的ListTile不应该分配内存，任何新增的分配都会使构建失败。
+ * <p>
+ * 覆盖的情况：内容不变的重新绑定、flat模式下命中{@link TextLayoutCache}的文本变化、非flat模式下的图标变化。
+ * 非flat模式下的文本变化不在此列：{@link android.widget.TextView#setText(CharSequence)}每次都会重新创建Layout
+ * （单行文本还会创建变换后的CharSequence），这部分分配来自框架而不是ListTile，无法做到零分配。
+ *
+ * @author nightkyb
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class RebindAllocationTest {
+    private static final int WARM_UP = 500;
+    private static final int ITERATIONS = 2000;
+    private static final int WIDTH = 1080;
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        ListTileMetrics.setEnabled(false);
+    }
+
+    @Test
+    public void rebindSameContent() {
+        assertNoAllocation(bindSameContent(createTile(false)));
+    }
+
+    @Test
+    public void rebindSameContentFlat() {
+        assertNoAllocation(bindSameContent(createTile(true)));
+    }
+
+    @Test
+    public void rebindCachedTextFlat() {
+        final ListTile tile = createTile(true);
+        assertNoAllocation(new Runnable() {
+            private int position;
+
+            @Override
+            public void run() {
+                // 两个文本的排版结果在预热后都位于TextLayoutCache中
+                boolean even = position++ % 2 == 0;
+                tile.edit()
+                        .leading(android.R.drawable.ic_menu_info_details)
+                        .title(even ? "Wi-Fi" : "Bluetooth")
+                        .subtitle(even ? "Connected" : "Disconnected")
+                        .extra(even ? "On" : "Off")
+                        .apply();
+            }
+        });
+    }
+
+    @Test
+    public void rebindChangedIcons() {
+        final ListTile tile = createTile(false);
+        // 预先加载的Drawable，排除资源加载本身的分配
+        final Drawable info = context.getDrawable(android.R.drawable.ic_menu_info_details);
+        final Drawable help = context.getDrawable(android.R.drawable.ic_menu_help);
+        final Drawable more = context.getDrawable(android.R.drawable.ic_menu_more);
+        final Drawable search = context.getDrawable(android.R.drawable.ic_menu_search);
+        assertNoAllocation(new Runnable() {
+            private int position;
+
+            @Override
+            public void run() {
+                boolean even = position++ % 2 == 0;
+                tile.edit()
+                        .leading(even ? info : help)
+                        .trailing(even ? more : search)
+                        .apply();
+            }
+        });
+    }
+
+    @Test
+    public void retintSameColor() {
+        final ListTile tile = createTile(false);
+        final ListTile flatTile = createTile(true);
+        assertNoAllocation(new Runnable() {
+            @Override
+            public void run() {
+                tile.tintLeading(android.R.color.black);
+                tile.tintTrailing(android.R.color.white);
+                flatTile.tintLeading(android.R.color.black);
+                flatTile.tintTrailing(android.R.color.white);
+            }
+        });
+    }
+
+    private ListTile createTile(boolean flat) {
+        ListTile tile = new ListTile(context, new ListTileStyle.Builder(context, ListTile.DEF_STYLE_RES)
+                .flat(flat)
+                .title("Wi-Fi")
+                .build());
+        tile.edit()
+                .leading(android.R.drawable.ic_menu_info_details)
+                .trailing(android.R.drawable.ic_menu_more)
+                .title("Wi-Fi")
+                .subtitle("Connected")
+                .extra("On")
+                .apply();
+        tile.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        tile.layout(0, 0, tile.getMeasuredWidth(), tile.getMeasuredHeight());
+        return tile;
+    }
+
+    /**
+     * 与ListTileAdapter相同，每次绑定设置所有槽位
+     */
+    private static Runnable bindSameContent(final ListTile tile) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                tile.edit()
+                        .leading(android.R.drawable.ic_menu_info_details)
+                        .trailing(android.R.drawable.ic_menu_more)
+                        .title("Wi-Fi")
+                        .subtitle("Connected")
+                        .extra("On")
+                        .apply();
+            }
+        };
+    }
+
+    private static void assertNoAllocation(Runnable bind) {
+        assertEquals("Bytes allocated by " + ITERATIONS + " rebinds", 0,
+                Allocations.measure(bind, WARM_UP, ITERATIONS));
+    }
+}
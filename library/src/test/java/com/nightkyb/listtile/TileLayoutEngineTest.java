@@ -0,0 +1,192 @@
+package com.nightkyb.listtile;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link TileLayoutEngine}的溢出分配和布局，不依赖Android框架，直接在JVM上运行
+ *
+ * @author nightkyb
+ */
+public class TileLayoutEngineTest {
+    private static final int HEIGHT = 48;
+
+    private TileLayoutEngine engine;
+
+    @Before
+    public void setUp() {
+        engine = new TileLayoutEngine();
+        engine.setPadding(10, 0, 10, 0);
+        engine.setMargins(0, 0, 0, 20);
+    }
+
+    @Test
+    public void fitsWithoutShrinking() {
+        slots(200, 100);
+
+        assertEquals(340, engine.measureWidth());
+        assertFalse(engine.resolveOverflow(340));
+        assertEquals(200, engine.getTitleWidth());
+        assertEquals(100, engine.getExtraWidth());
+    }
+
+    @Test
+    public void widerShrinks() {
+        engine.setOverflowPolicy(TileLayoutEngine.POLICY_WIDER_SHRINKS);
+
+        slots(200, 100);
+        assertTrue(engine.resolveOverflow(280));
+        assertWidths(140, 100);
+
+        slots(100, 200);
+        assertTrue(engine.resolveOverflow(280));
+        assertWidths(100, 140);
+
+        // 较宽的一方裁剪到0后由另一方承担剩余部分
+        slots(200, 100);
+        assertTrue(engine.resolveOverflow(30));
+        assertWidths(0, 0);
+    }
+
+    @Test
+    public void keepTitle() {
+        engine.setOverflowPolicy(TileLayoutEngine.POLICY_KEEP_TITLE);
+
+        slots(200, 100);
+        assertTrue(engine.resolveOverflow(280));
+        assertWidths(200, 40);
+
+        assertTrue(engine.resolveOverflow(220));
+        assertWidths(180, 0);
+    }
+
+    @Test
+    public void keepExtra() {
+        engine.setOverflowPolicy(TileLayoutEngine.POLICY_KEEP_EXTRA);
+
+        slots(200, 100);
+        assertTrue(engine.resolveOverflow(280));
+        assertWidths(140, 100);
+
+        assertTrue(engine.resolveOverflow(120));
+        assertWidths(0, 80);
+    }
+
+    @Test
+    public void proportional() {
+        engine.setOverflowPolicy(TileLayoutEngine.POLICY_PROPORTIONAL);
+
+        slots(200, 100);
+        assertTrue(engine.resolveOverflow(280));
+        assertWidths(160, 80);
+
+        // 取整后的剩余部分不会丢失
+        assertTrue(engine.resolveOverflow(279));
+        assertEquals(300 - 61, engine.getTitleWidth() + engine.getExtraWidth());
+        assertWidths(160, 79);
+    }
+
+    @Test
+    public void minWidthsLargerThanAvailableSpace() {
+        engine.setMinWidths(150, 80);
+        int[] policies = {
+                TileLayoutEngine.POLICY_WIDER_SHRINKS,
+                TileLayoutEngine.POLICY_KEEP_TITLE,
+                TileLayoutEngine.POLICY_KEEP_EXTRA,
+                TileLayoutEngine.POLICY_PROPORTIONAL,
+        };
+        for (int policy : policies) {
+            engine.setOverflowPolicy(policy);
+            slots(200, 100);
+
+            // 两者都停在最小宽度，超出的部分不再裁剪
+            assertTrue(engine.resolveOverflow(100));
+            assertWidths(150, 80);
+            assertTrue(engine.isTitleShrunk());
+            assertTrue(engine.isExtraShrunk());
+        }
+
+        // 内容比最小宽度窄时以内容宽度为准，不会被放大也不会被裁剪
+        engine.setOverflowPolicy(TileLayoutEngine.POLICY_KEEP_TITLE);
+        slots(200, 60);
+        assertTrue(engine.resolveOverflow(100));
+        assertWidths(150, 60);
+        assertFalse(engine.isExtraShrunk());
+    }
+
+    @Test
+    public void extraColumnPaddingIsAbsorbedFirst() {
+        engine.setColumnWidths(0, 150);
+        slots(200, 100);
+        assertEquals(390, engine.measureWidth());
+
+        // 超出的宽度小于extra列的空白，只让出空白，不裁剪内容
+        assertFalse(engine.resolveOverflow(350));
+        assertWidths(200, 110);
+        assertFalse(engine.isTitleShrunk());
+
+        // 空白全部让出后再按策略裁剪
+        assertTrue(engine.resolveOverflow(300));
+        assertWidths(160, 100);
+        assertFalse(engine.isExtraShrunk());
+    }
+
+    @Test
+    public void paddingIsOutsideSlots() {
+        engine.setPadding(16, 8, 24, 8);
+        engine.setSlot(TileLayoutEngine.TITLE, 200, 20);
+        engine.setSlot(TileLayoutEngine.EXTRA, 100, 20);
+
+        assertEquals(16 + 200 + 20 + 100 + 24, engine.measureWidth());
+        assertEquals(8 + 20 + 8, engine.measureHeight());
+
+        engine.layout(500, 36);
+        assertEquals(16, engine.getLeft(TileLayoutEngine.TITLE));
+        assertEquals(8, engine.getTop(TileLayoutEngine.TITLE));
+        assertEquals(500 - 24 - 100, engine.getLeft(TileLayoutEngine.EXTRA));
+    }
+
+    @Test
+    public void shrinkThenGrowIsStable() {
+        slots(200, 100);
+        assertTrue(engine.resolveOverflow(280));
+        assertWidths(140, 100);
+        // ListTile按分配的宽度重新测量后布局
+        engine.setSlot(TileLayoutEngine.TITLE, engine.getTitleWidth(), HEIGHT);
+        engine.layout(280, HEIGHT);
+        int shrunkExtraLeft = engine.getLeft(TileLayoutEngine.EXTRA);
+
+        // 重新绑定时按内容宽度重新设置槽位，放宽后恢复原宽度
+        slots(200, 100);
+        assertFalse(engine.resolveOverflow(400));
+        assertWidths(200, 100);
+        engine.layout(400, HEIGHT);
+        assertEquals(400 - 10 - 100, engine.getLeft(TileLayoutEngine.EXTRA));
+
+        // 再次收窄时结果与第一次相同
+        slots(200, 100);
+        assertTrue(engine.resolveOverflow(280));
+        assertWidths(140, 100);
+        engine.setSlot(TileLayoutEngine.TITLE, engine.getTitleWidth(), HEIGHT);
+        engine.layout(280, HEIGHT);
+        assertEquals(shrunkExtraLeft, engine.getLeft(TileLayoutEngine.EXTRA));
+
+        // 按分配后的宽度重新测量的结果正好放得下，不会再次裁剪
+        assertFalse(engine.resolveOverflow(280));
+        assertWidths(140, 100);
+    }
+
+    private void slots(int titleWidth, int extraWidth) {
+        engine.setSlot(TileLayoutEngine.TITLE, titleWidth, HEIGHT);
+        engine.setSlot(TileLayoutEngine.EXTRA, extraWidth, HEIGHT);
+    }
+
+    private void assertWidths(int titleWidth, int extraWidth) {
+        assertEquals("title", titleWidth, engine.getTitleWidth());
+        assertEquals("extra", extraWidth, engine.getExtraWidth());
+    }
+}